@@ -0,0 +1,3 @@
+-- Optimistic locking version for inventory rows
+-- Existing rows start at version 0 so Hibernate can compare them
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,4 @@
+-- Sales history is paged newest first on (transaction_date, id); these
+-- indexes let each page start at the cursor instead of skipping rows
+CREATE INDEX IF NOT EXISTS idx_sales_date_id ON sales(transaction_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_sales_employee_date_id ON sales(employee_id, transaction_date DESC, id DESC);
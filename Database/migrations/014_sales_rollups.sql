@@ -0,0 +1,37 @@
+-- Rollup tables maintained in the sale and return transactions. Existing
+-- history is loaded with POST /api/reports/backfill after this migration.
+-- Daily sales totals, spread over slot rows so concurrent checkouts do not
+-- all update the same row; reports sum the slots of a day
+CREATE TABLE IF NOT EXISTS daily_sales_rollup (
+    sale_date DATE NOT NULL,
+    slot INTEGER NOT NULL,
+    transaction_count BIGINT NOT NULL DEFAULT 0,
+    subtotal_amount DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    tax_amount DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    discount_amount DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    final_amount DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    return_count BIGINT NOT NULL DEFAULT 0,
+    refund_amount DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (sale_date, slot)
+);
+
+-- Units and revenue per item and day
+CREATE TABLE IF NOT EXISTS daily_item_sales_rollup (
+    sale_date DATE NOT NULL,
+    item_id UUID NOT NULL REFERENCES items(id),
+    quantity_sold BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (sale_date, item_id)
+);
+
+-- Transactions and takings per employee and day
+CREATE TABLE IF NOT EXISTS daily_employee_sales_rollup (
+    sale_date DATE NOT NULL,
+    employee_id UUID NOT NULL REFERENCES employees(id),
+    transaction_count BIGINT NOT NULL DEFAULT 0,
+    final_amount DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (sale_date, employee_id)
+);
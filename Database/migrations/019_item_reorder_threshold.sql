@@ -0,0 +1,3 @@
+-- Per-item reorder point for the low-stock watchlist
+-- NULL keeps the configured default (pos.inventory.low-stock.default-threshold)
+ALTER TABLE items ADD COLUMN IF NOT EXISTS reorder_threshold INTEGER CHECK (reorder_threshold >= 0);
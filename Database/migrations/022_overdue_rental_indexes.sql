@@ -0,0 +1,4 @@
+-- Store-wide overdue rentals report (GET /api/rentals/overdue)
+-- Only open lines are indexed, so the index stays small as returned lines pile up
+CREATE INDEX IF NOT EXISTS idx_rental_items_open ON rental_items(rental_id) WHERE returned = FALSE;
+CREATE INDEX IF NOT EXISTS idx_rentals_due_date ON rentals(due_date, id);
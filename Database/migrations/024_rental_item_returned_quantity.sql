@@ -0,0 +1,45 @@
+-- Partial returns are counted on the rental line instead of splitting it.
+-- return_items keeps one row per return event of a line.
+BEGIN;
+
+ALTER TABLE rental_items ADD COLUMN IF NOT EXISTS returned_quantity INTEGER NOT NULL DEFAULT 0;
+UPDATE rental_items SET returned_quantity = quantity WHERE returned = TRUE;
+
+-- Earlier partial returns split a line into a returned row and a row for
+-- the rest, with the same rental, item and price. Fold every such group
+-- into its oldest row.
+CREATE TEMP TABLE rental_item_merge ON COMMIT DROP AS
+SELECT id,
+       FIRST_VALUE(id) OVER (PARTITION BY rental_id, item_id, unit_price ORDER BY created_at, id) AS keep_id
+FROM rental_items;
+DELETE FROM rental_item_merge
+WHERE keep_id IN (SELECT keep_id FROM rental_item_merge GROUP BY keep_id HAVING COUNT(*) = 1);
+
+UPDATE rental_items k
+SET quantity = g.quantity,
+    returned_quantity = g.returned_quantity,
+    returned = (g.returned_quantity = g.quantity),
+    return_date = CASE WHEN g.returned_quantity = g.quantity THEN g.return_date END,
+    days_overdue = g.days_overdue
+FROM (SELECT m.keep_id,
+             SUM(ri.quantity) AS quantity,
+             SUM(ri.returned_quantity) AS returned_quantity,
+             MAX(ri.return_date) AS return_date,
+             MAX(ri.days_overdue) AS days_overdue
+      FROM rental_items ri JOIN rental_item_merge m ON m.id = ri.id
+      GROUP BY m.keep_id) g
+WHERE k.id = g.keep_id;
+
+UPDATE return_items r
+SET rental_item_id = m.keep_id
+FROM rental_item_merge m
+WHERE r.rental_item_id = m.id AND m.id <> m.keep_id;
+
+DELETE FROM rental_items
+WHERE id IN (SELECT id FROM rental_item_merge WHERE id <> keep_id);
+
+ALTER TABLE rental_items DROP CONSTRAINT IF EXISTS rental_items_returned_quantity_check;
+ALTER TABLE rental_items ADD CONSTRAINT rental_items_returned_quantity_check
+    CHECK (returned_quantity >= 0 AND returned_quantity <= quantity);
+
+COMMIT;
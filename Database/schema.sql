@@ -24,6 +24,8 @@ CREATE TABLE items (
     name VARCHAR(200) NOT NULL,
     price DECIMAL(10, 2) NOT NULL CHECK (price >= 0),
     quantity INTEGER NOT NULL CHECK (quantity >= 0),
+    reorder_threshold INTEGER CHECK (reorder_threshold >= 0),
+    version BIGINT NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
@@ -93,6 +95,7 @@ CREATE TABLE rental_items (
     item_id UUID NOT NULL REFERENCES items(id),
     quantity INTEGER NOT NULL CHECK (quantity > 0),
     unit_price DECIMAL(10, 2) NOT NULL CHECK (unit_price >= 0),
+    returned_quantity INTEGER NOT NULL DEFAULT 0 CHECK (returned_quantity >= 0 AND returned_quantity <= quantity),
     returned BOOLEAN DEFAULT FALSE,
     return_date TIMESTAMP,
     days_overdue INTEGER DEFAULT 0 CHECK (days_overdue >= 0),
@@ -130,18 +133,74 @@ CREATE TABLE audit_logs (
     timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Outbox of domain events written in the same transaction as the change
+CREATE TABLE outbox_events (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    event_type VARCHAR(50) NOT NULL,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id UUID NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    dispatched_at TIMESTAMP
+);
+
+-- Daily sales totals, spread over slot rows so concurrent checkouts do not
+-- all update the same row; reports sum the slots of a day
+CREATE TABLE daily_sales_rollup (
+    sale_date DATE NOT NULL,
+    slot INTEGER NOT NULL,
+    transaction_count BIGINT NOT NULL DEFAULT 0,
+    subtotal_amount DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    tax_amount DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    discount_amount DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    final_amount DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    return_count BIGINT NOT NULL DEFAULT 0,
+    refund_amount DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (sale_date, slot)
+);
+
+-- Units and revenue per item and day
+CREATE TABLE daily_item_sales_rollup (
+    sale_date DATE NOT NULL,
+    item_id UUID NOT NULL REFERENCES items(id),
+    quantity_sold BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (sale_date, item_id)
+);
+
+-- Transactions and takings per employee and day
+CREATE TABLE daily_employee_sales_rollup (
+    sale_date DATE NOT NULL,
+    employee_id UUID NOT NULL REFERENCES employees(id),
+    transaction_count BIGINT NOT NULL DEFAULT 0,
+    final_amount DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (sale_date, employee_id)
+);
+
 -- Indexes for performance
 CREATE INDEX idx_employees_username ON employees(username);
 CREATE INDEX idx_items_item_id ON items(item_id);
 CREATE INDEX idx_customers_phone ON customers(phone);
 CREATE INDEX idx_sales_employee ON sales(employee_id);
 CREATE INDEX idx_sales_date ON sales(transaction_date);
+CREATE INDEX idx_sales_date_id ON sales(transaction_date DESC, id DESC);
+CREATE INDEX idx_sales_employee_date_id ON sales(employee_id, transaction_date DESC, id DESC);
 CREATE INDEX idx_sale_items_sale ON sale_items(sale_id);
 CREATE INDEX idx_rentals_customer ON rentals(customer_id);
 CREATE INDEX idx_rental_items_rental ON rental_items(rental_id);
 CREATE INDEX idx_rental_items_returned ON rental_items(returned);
+CREATE INDEX idx_rental_items_open ON rental_items(rental_id) WHERE returned = FALSE;
+CREATE INDEX idx_rentals_due_date ON rentals(due_date, id);
 CREATE INDEX idx_audit_logs_employee ON audit_logs(employee_id);
 CREATE INDEX idx_audit_logs_timestamp ON audit_logs(timestamp);
+CREATE INDEX idx_outbox_events_pending ON outbox_events(created_at) WHERE status = 'PENDING';
+CREATE INDEX idx_outbox_events_dispatched ON outbox_events(dispatched_at) WHERE status = 'DISPATCHED';
 
 -- Comments for documentation
 COMMENT ON TABLE employees IS 'Employee accounts with authentication information';
@@ -151,4 +210,5 @@ COMMENT ON TABLE sales IS 'Sales transactions with totals and tax';
 COMMENT ON TABLE rentals IS 'Item rental transactions';
 COMMENT ON TABLE returns IS 'Return transactions for rented items';
 COMMENT ON TABLE audit_logs IS 'System audit trail for all operations';
+COMMENT ON TABLE daily_sales_rollup IS 'Daily sales and refund totals maintained with each transaction';
 
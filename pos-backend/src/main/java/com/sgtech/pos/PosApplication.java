@@ -2,11 +2,19 @@ package com.sgtech.pos;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+/**
+ * Request handling and scheduled jobs run on virtual threads when
+ * spring.threads.virtual.enabled is set and the JVM is Java 21 or newer,
+ * and on Tomcat's platform thread pool and the scheduler pool otherwise.
+ */
 @SpringBootApplication
+@EnableRetry
+@EnableScheduling
 public class PosApplication {
     public static void main(String[] args) {
         SpringApplication.run(PosApplication.class, args);
     }
 }
-
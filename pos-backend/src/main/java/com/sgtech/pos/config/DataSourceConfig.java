@@ -0,0 +1,68 @@
+package com.sgtech.pos.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Read/write split, enabled by setting pos.datasource.replica.url. The
+ * primary keeps the regular spring.datasource settings and pool; the
+ * replica gets its own pool so reporting and catalog reads cannot starve
+ * checkout of connections.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pos.datasource.replica.url")
+public class DataSourceConfig {
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+    
+    @Bean
+    @ConfigurationProperties("pos.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${pos.datasource.replica.url}") String url,
+            @Value("${pos.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${pos.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+    
+    @Bean
+    public ReplicaLagGuard replicaLagGuard(
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${pos.datasource.replica.lag-query:}") String lagQuery,
+            @Value("${pos.datasource.replica.max-lag:PT2S}") Duration maxLag) {
+        return new ReplicaLagGuard(replica, lagQuery, maxLag);
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            ReplicaLagGuard lagGuard) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, lagGuard));
+    }
+}
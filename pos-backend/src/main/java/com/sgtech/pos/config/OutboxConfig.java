@@ -0,0 +1,37 @@
+package com.sgtech.pos.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class OutboxConfig {
+    
+    @Value("${pos.outbox.threads:4}")
+    private int threads;
+    
+    @Bean(name = "outboxExecutor")
+    public TaskExecutor outboxExecutor(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("outbox-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(threads);
+            executor.setTaskTerminationTimeout(10000);
+            return executor;
+        }
+        
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(10000);
+        executor.setThreadNamePrefix("outbox-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
@@ -0,0 +1,91 @@
+package com.sgtech.pos.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps read-only traffic on the primary while the replica is too far
+ * behind. The lag is sampled with a query against the replica; when the
+ * query fails or reports more than the allowed lag, reads fall back to
+ * the primary until a later sample is within bounds again. Without a lag
+ * query the replica is always considered usable.
+ * <p>
+ * Lag within bounds is still lag, so a user's reads also stay on the
+ * primary for max-lag after that user's last committed write; otherwise a
+ * sale or rental looked up right after it was made could be missing.
+ */
+public class ReplicaLagGuard {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagGuard.class);
+    
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final Duration maxLag;
+    
+    private volatile boolean usable = true;
+    
+    // When each user last committed a write, in System.nanoTime()
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    
+    public ReplicaLagGuard(DataSource replica, String lagQuery, Duration maxLag) {
+        this.replica = new JdbcTemplate(replica);
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+    }
+    
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+    
+    /**
+     * Whether reads for the given user may use the replica; a null user
+     * is only subject to the overall lag
+     */
+    public boolean isReplicaUsable(String user) {
+        if (!usable) {
+            return false;
+        }
+        Long lastWrite = user == null ? null : lastWrites.get(user);
+        return lastWrite == null || System.nanoTime() - lastWrite > maxLag.toNanos();
+    }
+    
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+    
+    public void recordWrite(String user) {
+        lastWrites.put(user, System.nanoTime());
+    }
+    
+    @Scheduled(fixedDelayString = "${pos.datasource.replica.lag-check-interval-ms:1000}")
+    public void check() {
+        long now = System.nanoTime();
+        lastWrites.values().removeIf(lastWrite -> now - lastWrite > maxLag.toNanos());
+        
+        if (lagQuery == null || lagQuery.isBlank()) {
+            return;
+        }
+        
+        boolean nowUsable;
+        try {
+            Double lagSeconds = replica.queryForObject(lagQuery, Double.class);
+            nowUsable = lagSeconds != null && lagSeconds * 1000 <= maxLag.toMillis();
+        } catch (RuntimeException e) {
+            nowUsable = false;
+        }
+        
+        if (nowUsable && !usable) {
+            log.info("Replica caught up, read-only transactions use it again");
+        } else if (!nowUsable && usable) {
+            log.warn("Replica lag above {} or unknown, read-only transactions use the primary", maxLag);
+        }
+        usable = nowUsable;
+    }
+}
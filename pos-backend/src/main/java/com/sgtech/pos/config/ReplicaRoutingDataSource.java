@@ -0,0 +1,85 @@
+package com.sgtech.pos.config;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections for read-only transactions to the replica and
+ * everything else to the primary. The routing decision is made when a
+ * connection is requested, so it has to sit behind a
+ * LazyConnectionDataSourceProxy for the transaction's read-only flag to
+ * be known by then.
+ * <p>
+ * A committed write pins the writing user's reads to the primary for a
+ * while, see {@link ReplicaLagGuard}. Transactions routed to the replica
+ * only read the second-level cache: entities loaded there may predate the
+ * latest writes and must not replace fresher cached ones.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+    
+    private final ReplicaLagGuard lagGuard;
+    
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagGuard lagGuard) {
+        this.lagGuard = lagGuard;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWrite(user);
+            return PRIMARY;
+        }
+        if (!lagGuard.isReplicaUsable(user)) {
+            return PRIMARY;
+        }
+        readCacheOnly();
+        return REPLICA;
+    }
+    
+    private void recordWrite(String user) {
+        if (user == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lagGuard.recordWrite(user);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lagGuard.recordWrite(user);
+            }
+        });
+    }
+    
+    // The transaction's EntityManager is bound before its first statement
+    // asks for a connection, so nothing has been put in the cache yet
+    private void readCacheOnly() {
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (resource instanceof EntityManagerHolder holder) {
+                holder.getEntityManager().unwrap(Session.class).setCacheMode(CacheMode.GET);
+            }
+        }
+    }
+    
+    private String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? null : authentication.getName();
+    }
+}
@@ -0,0 +1,31 @@
+package com.sgtech.pos.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+
+/**
+ * Local JCache manager behind the Hibernate second-level cache. The
+ * regions are declared in hibernate-cache.conf, which is read from the
+ * classpath so it is found inside the packaged jar as well.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+    
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+            .getCacheManager(URI.create("classpath:hibernate-cache.conf"), getClass().getClassLoader());
+    }
+    
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
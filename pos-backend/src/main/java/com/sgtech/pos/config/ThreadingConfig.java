@@ -0,0 +1,46 @@
+package com.sgtech.pos.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+/**
+ * Reports which thread model serves requests and scheduled jobs. Virtual
+ * threads need Java 21; on an older JVM the setting is ignored and
+ * platform threads are used.
+ */
+@Configuration
+public class ThreadingConfig {
+    
+    private static final Logger log = LoggerFactory.getLogger(ThreadingConfig.class);
+    
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualRequested;
+    
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int poolSize;
+    
+    @Value("${spring.task.scheduling.pool.size:1}")
+    private int schedulerThreads;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportThreading(ApplicationReadyEvent event) {
+        Environment environment = event.getApplicationContext().getEnvironment();
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Serving requests and scheduled jobs on virtual threads, JDBC concurrency bounded by {} pooled connections",
+                poolSize);
+            return;
+        }
+        if (virtualRequested) {
+            log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads, using platform threads",
+                JavaVersion.getJavaVersion());
+        }
+        log.info("Serving requests on platform threads, scheduled jobs on {} scheduler threads", schedulerThreads);
+    }
+}
@@ -0,0 +1,115 @@
+package com.sgtech.pos.controller;
+
+import com.sgtech.pos.dto.CartLineRequest;
+import com.sgtech.pos.dto.CartResponse;
+import com.sgtech.pos.dto.SaleResponse;
+import com.sgtech.pos.model.Sale;
+import com.sgtech.pos.service.Cart;
+import com.sgtech.pos.service.CartService;
+import com.sgtech.pos.service.IdempotencyService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+@RestController
+@RequestMapping("/api/carts")
+@CrossOrigin(origins = "http://localhost:3000")
+public class CartController {
+    
+    @Autowired
+    private CartService cartService;
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
+    @PostMapping
+    public ResponseEntity<CartResponse> createCart() {
+        return ResponseEntity.ok(respond(cartService.createCart()));
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<CartResponse> getCart(@PathVariable UUID id) {
+        return cartService.getCart(id)
+                .map(cart -> ResponseEntity.ok(respond(cart)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> discardCart(@PathVariable UUID id) {
+        cartService.discard(id);
+        return ResponseEntity.noContent().build();
+    }
+    
+    @PostMapping("/{id}/lines")
+    public ResponseEntity<CartResponse> addLine(
+            @PathVariable UUID id,
+            @Valid @RequestBody CartLineRequest request) {
+        return update(id, () -> cartService.addLine(id, request.getItemId(), request.getQuantity()));
+    }
+    
+    @PutMapping("/{id}/lines/{itemId}")
+    public ResponseEntity<CartResponse> updateLine(
+            @PathVariable UUID id,
+            @PathVariable Integer itemId,
+            @RequestParam int quantity) {
+        return update(id, () -> cartService.updateLine(id, itemId, quantity));
+    }
+    
+    @DeleteMapping("/{id}/lines/{itemId}")
+    public ResponseEntity<CartResponse> removeLine(@PathVariable UUID id, @PathVariable Integer itemId) {
+        return update(id, () -> cartService.removeLine(id, itemId));
+    }
+    
+    @PutMapping("/{id}/coupon")
+    public ResponseEntity<CartResponse> applyCoupon(@PathVariable UUID id, @RequestParam String code) {
+        return update(id, () -> cartService.applyCoupon(id, code));
+    }
+    
+    @DeleteMapping("/{id}/coupon")
+    public ResponseEntity<CartResponse> removeCoupon(@PathVariable UUID id) {
+        return update(id, () -> cartService.removeCoupon(id));
+    }
+    
+    @PostMapping("/{id}/checkout")
+    public ResponseEntity<SaleResponse> checkout(
+            @PathVariable UUID id,
+            @RequestHeader("X-Employee-Id") UUID employeeId,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("carts:" + employeeId, idempotencyKey, id, () -> {
+            if (cartService.getCart(id).isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            try {
+                Sale sale = cartService.checkout(id, employeeId);
+                return ResponseEntity.ok(SaleResponse.from(sale));
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        });
+    }
+    
+    private ResponseEntity<CartResponse> update(UUID id, Supplier<Cart> change) {
+        if (cartService.getCart(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(respond(change.get()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Reads the cart under the lock its changes are made under, so a scan
+     * running at the same time cannot leave the response half updated
+     */
+    private static CartResponse respond(Cart cart) {
+        synchronized (cart) {
+            return CartResponse.from(cart);
+        }
+    }
+}
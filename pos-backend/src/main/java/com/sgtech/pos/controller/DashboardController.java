@@ -0,0 +1,32 @@
+package com.sgtech.pos.controller;
+
+import com.sgtech.pos.dto.DashboardSnapshot;
+import com.sgtech.pos.service.LiveDashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@CrossOrigin(origins = "http://localhost:3000")
+public class DashboardController {
+    
+    @Autowired
+    private LiveDashboardService liveDashboardService;
+    
+    @GetMapping
+    public ResponseEntity<DashboardSnapshot> getSnapshot() {
+        return ResponseEntity.ok(liveDashboardService.snapshot());
+    }
+    
+    /**
+     * Server-Sent Events stream of "sales" events, each carrying a
+     * dashboard snapshot
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return liveDashboardService.subscribe();
+    }
+}
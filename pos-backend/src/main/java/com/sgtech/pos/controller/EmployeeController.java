@@ -1,11 +1,15 @@
 package com.sgtech.pos.controller;
 
+import com.sgtech.pos.dto.EmployeeResponse;
 import com.sgtech.pos.model.Employee;
 import com.sgtech.pos.service.EmployeeService;
+import com.sgtech.pos.util.JsonStreamWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,27 +21,31 @@ public class EmployeeController {
     @Autowired
     private EmployeeService employeeService;
     
+    @Autowired
+    private JsonStreamWriter jsonStreamWriter;
+    
     @GetMapping
-    public ResponseEntity<List<Employee>> getAllEmployees() {
+    public void getAllEmployees(HttpServletResponse response) throws IOException {
         List<Employee> employees = employeeService.getAllEmployees();
-        return ResponseEntity.ok(employees);
+        jsonStreamWriter.writeArray(response, employees, EmployeeResponse.class, EmployeeResponse::from);
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Employee> getEmployeeById(@PathVariable UUID id) {
+    public ResponseEntity<EmployeeResponse> getEmployeeById(@PathVariable UUID id) {
         return employeeService.getEmployeeById(id)
-                .map(ResponseEntity::ok)
+                .map(employee -> ResponseEntity.ok(EmployeeResponse.from(employee)))
                 .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/position/{position}")
-    public ResponseEntity<List<Employee>> getEmployeesByPosition(@PathVariable String position) {
+    public void getEmployeesByPosition(@PathVariable String position, HttpServletResponse response)
+            throws IOException {
         List<Employee> employees = employeeService.getEmployeesByPosition(position);
-        return ResponseEntity.ok(employees);
+        jsonStreamWriter.writeArray(response, employees, EmployeeResponse.class, EmployeeResponse::from);
     }
     
     @PostMapping
-    public ResponseEntity<Employee> createEmployee(@RequestBody EmployeeCreateRequest request) {
+    public ResponseEntity<EmployeeResponse> createEmployee(@RequestBody EmployeeCreateRequest request) {
         try {
             Employee employee = employeeService.createEmployee(
                 request.getUsername(),
@@ -46,14 +54,14 @@ public class EmployeeController {
                 request.getPosition(),
                 request.getPassword()
             );
-            return ResponseEntity.ok(employee);
+            return ResponseEntity.ok(EmployeeResponse.from(employee));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
     @PutMapping("/{id}")
-    public ResponseEntity<Employee> updateEmployee(
+    public ResponseEntity<EmployeeResponse> updateEmployee(
             @PathVariable UUID id,
             @RequestBody EmployeeUpdateRequest request) {
         try {
@@ -64,7 +72,7 @@ public class EmployeeController {
                 request.getPosition(),
                 request.getPassword()
             );
-            return ResponseEntity.ok(employee);
+            return ResponseEntity.ok(EmployeeResponse.from(employee));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
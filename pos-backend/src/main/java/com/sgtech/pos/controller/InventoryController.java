@@ -1,11 +1,19 @@
 package com.sgtech.pos.controller;
 
+import com.sgtech.pos.dto.ItemResponse;
 import com.sgtech.pos.model.Item;
+import com.sgtech.pos.service.CatalogSnapshot;
 import com.sgtech.pos.service.InventoryService;
+import com.sgtech.pos.service.StockEngine;
+import com.sgtech.pos.util.JsonStreamWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,48 +25,78 @@ public class InventoryController {
     @Autowired
     private InventoryService inventoryService;
     
+    @Autowired
+    private JsonStreamWriter jsonStreamWriter;
+    
+    @Autowired
+    private StockEngine stockEngine;
+    
+    @Autowired
+    private CatalogSnapshot catalogSnapshot;
+    
     @GetMapping("/items")
-    public ResponseEntity<List<Item>> getAllItems() {
-        List<Item> items = inventoryService.getAllItems();
-        return ResponseEntity.ok(items);
+    public ResponseEntity<byte[]> getAllItems(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return catalogSnapshot.respond(ifNoneMatch);
     }
     
     @GetMapping("/items/{id}")
-    public ResponseEntity<Item> getItemById(@PathVariable UUID id) {
+    public ResponseEntity<ItemResponse> getItemById(@PathVariable UUID id) {
         return inventoryService.getItemById(id)
-                .map(ResponseEntity::ok)
+                .map(item -> ResponseEntity.ok(toResponse(item)))
                 .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/items/item-id/{itemId}")
-    public ResponseEntity<Item> getItemByItemId(@PathVariable Integer itemId) {
+    public ResponseEntity<ItemResponse> getItemByItemId(@PathVariable Integer itemId) {
         return inventoryService.getItemByItemId(itemId)
-                .map(ResponseEntity::ok)
+                .map(item -> ResponseEntity.ok(toResponse(item)))
                 .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/items/search")
-    public ResponseEntity<List<Item>> searchItems(@RequestParam String name) {
-        List<Item> items = inventoryService.searchItems(name);
-        return ResponseEntity.ok(items);
+    public void searchItems(
+            @RequestParam String name,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            HttpServletResponse response) throws IOException {
+        Page<Item> items = inventoryService.searchItems(name, page, size);
+        response.setHeader(ItemController.TOTAL_COUNT_HEADER, String.valueOf(items.getTotalElements()));
+        jsonStreamWriter.writeArray(response, items.getContent(), ItemResponse.class, this::toResponse);
     }
     
     @GetMapping("/items/low-stock")
-    public ResponseEntity<List<Item>> getLowStockItems(@RequestParam(defaultValue = "10") int threshold) {
+    public void getLowStockItems(@RequestParam(required = false) Integer threshold, HttpServletResponse response)
+            throws IOException {
         List<Item> items = inventoryService.getLowStockItems(threshold);
-        return ResponseEntity.ok(items);
+        jsonStreamWriter.writeArray(response, items, ItemResponse.class, this::toResponse);
     }
     
     @PutMapping("/items/{id}/quantity")
-    public ResponseEntity<Item> updateQuantity(
+    public ResponseEntity<ItemResponse> updateQuantity(
             @PathVariable UUID id,
             @RequestParam int quantity) {
         try {
             Item item = inventoryService.updateItemQuantity(id, quantity);
-            return ResponseEntity.ok(item);
+            return ResponseEntity.ok(toResponse(item));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PutMapping("/items/{id}/reorder-threshold")
+    public ResponseEntity<ItemResponse> updateReorderThreshold(
+            @PathVariable UUID id,
+            @RequestParam(required = false) Integer threshold) {
+        try {
+            Item item = inventoryService.updateReorderThreshold(id, threshold);
+            return ResponseEntity.ok(toResponse(item));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
+    
+    private ItemResponse toResponse(Item item) {
+        return ItemResponse.from(item, stockEngine.available(item));
+    }
 }
-
@@ -1,11 +1,23 @@
 package com.sgtech.pos.controller;
 
+import com.sgtech.pos.dto.ItemResponse;
 import com.sgtech.pos.model.Item;
 import com.sgtech.pos.repository.ItemRepository;
+import com.sgtech.pos.service.CatalogSnapshot;
+import com.sgtech.pos.service.InventoryService;
+import com.sgtech.pos.service.ItemChangeFeed;
+import com.sgtech.pos.service.StockEngine;
+import com.sgtech.pos.util.JsonStreamWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,39 +27,76 @@ import java.util.UUID;
 @CrossOrigin(origins = "http://localhost:3000")
 public class ItemController {
     
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    
     @Autowired
     private ItemRepository itemRepository;
     
+    @Autowired
+    private JsonStreamWriter jsonStreamWriter;
+    
+    @Autowired
+    private StockEngine stockEngine;
+    
+    @Autowired
+    private ItemChangeFeed itemChangeFeed;
+    
+    @Autowired
+    private CatalogSnapshot catalogSnapshot;
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
     @GetMapping
-    public ResponseEntity<List<Item>> getAllItems() {
-        List<Item> items = itemRepository.findAll();
-        return ResponseEntity.ok(items);
+    public ResponseEntity<byte[]> getAllItems(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return catalogSnapshot.respond(ifNoneMatch);
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Item> getItemById(@PathVariable UUID id) {
+    public ResponseEntity<ItemResponse> getItemById(@PathVariable UUID id) {
         Optional<Item> item = itemRepository.findById(id);
-        return item.map(ResponseEntity::ok)
+        return item.map(found -> ResponseEntity.ok(toResponse(found)))
                    .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/item-id/{itemId}")
-    public ResponseEntity<Item> getItemByItemId(@PathVariable Integer itemId) {
-        Optional<Item> item = itemRepository.findByItemId(itemId);
-        return item.map(ResponseEntity::ok)
+    public ResponseEntity<ItemResponse> getItemByItemId(@PathVariable Integer itemId) {
+        Optional<Item> item = inventoryService.getItemByItemId(itemId);
+        return item.map(found -> ResponseEntity.ok(toResponse(found)))
                    .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<Item>> searchItems(@RequestParam String name) {
-        List<Item> items = itemRepository.findByNameContainingIgnoreCase(name);
-        return ResponseEntity.ok(items);
+    public void searchItems(
+            @RequestParam String name,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            HttpServletResponse response) throws IOException {
+        // The body stays a plain array for existing clients; the total rides in a header
+        Page<Item> items = inventoryService.searchItems(name, page, size);
+        response.setHeader(TOTAL_COUNT_HEADER, String.valueOf(items.getTotalElements()));
+        jsonStreamWriter.writeArray(response, items.getContent(), ItemResponse.class, this::toResponse);
     }
     
     @GetMapping("/low-stock")
-    public ResponseEntity<List<Item>> getLowStockItems(@RequestParam(defaultValue = "10") int threshold) {
-        List<Item> items = itemRepository.findByQuantityGreaterThan(threshold);
-        return ResponseEntity.ok(items);
+    public void getLowStockItems(@RequestParam(required = false) Integer threshold, HttpServletResponse response)
+            throws IOException {
+        List<Item> items = inventoryService.getLowStockItems(threshold);
+        jsonStreamWriter.writeArray(response, items, ItemResponse.class, this::toResponse);
+    }
+    
+    /**
+     * Server-Sent Events stream of "items" events, each a JSON array of
+     * {itemId, quantity, price} for the items changed since the last one.
+     * Clients load the catalog once and then apply these.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges() {
+        return itemChangeFeed.subscribe();
+    }
+    
+    private ItemResponse toResponse(Item item) {
+        return ItemResponse.from(item, stockEngine.available(item));
     }
 }
-
@@ -1,14 +1,23 @@
 package com.sgtech.pos.controller;
 
+import com.sgtech.pos.dto.OverdueRentalResponse;
+import com.sgtech.pos.dto.RentalItemResponse;
 import com.sgtech.pos.dto.RentalRequest;
+import com.sgtech.pos.dto.RentalResponse;
 import com.sgtech.pos.model.Rental;
 import com.sgtech.pos.model.RentalItem;
+import com.sgtech.pos.service.IdempotencyService;
 import com.sgtech.pos.service.RentalService;
+import com.sgtech.pos.util.JsonStreamWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -20,35 +29,63 @@ public class RentalController {
     @Autowired
     private RentalService rentalService;
     
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
+    @Autowired
+    private JsonStreamWriter jsonStreamWriter;
+    
     @PostMapping
-    public ResponseEntity<Rental> createRental(
+    public ResponseEntity<RentalResponse> createRental(
             @RequestHeader("X-Employee-Id") UUID employeeId,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody RentalRequest request) {
-        try {
-            Rental rental = rentalService.processRental(employeeId, request);
-            return ResponseEntity.ok(rental);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().build();
-        }
+        return idempotencyService.execute("rentals:" + employeeId, idempotencyKey, request, () -> {
+            try {
+                Rental rental = rentalService.processRental(employeeId, request);
+                return ResponseEntity.ok(RentalResponse.from(rental, request.getCustomerPhone()));
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        });
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Rental> getRentalById(@PathVariable UUID id) {
+    public ResponseEntity<RentalResponse> getRentalById(@PathVariable UUID id) {
         return rentalService.getRentalById(id)
-                .map(ResponseEntity::ok)
+                .map(rental -> ResponseEntity.ok(RentalResponse.from(rental)))
                 .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/customer/{phone}")
-    public ResponseEntity<List<Rental>> getRentalsByCustomer(@PathVariable String phone) {
+    public void getRentalsByCustomer(@PathVariable String phone, HttpServletResponse response)
+            throws IOException {
         List<Rental> rentals = rentalService.getRentalsByCustomer(phone);
-        return ResponseEntity.ok(rentals);
+        jsonStreamWriter.writeArray(response, rentals, RentalResponse.class, RentalResponse::from);
     }
     
     @GetMapping("/outstanding/{phone}")
-    public ResponseEntity<List<RentalItem>> getOutstandingRentals(@PathVariable String phone) {
+    public void getOutstandingRentals(@PathVariable String phone, HttpServletResponse response)
+            throws IOException {
         List<RentalItem> items = rentalService.getOutstandingRentals(phone);
-        return ResponseEntity.ok(items);
+        jsonStreamWriter.writeArray(response, items, RentalItemResponse.class, RentalItemResponse::from);
+    }
+    
+    /**
+     * Overdue lines across all customers, most days late first or, with
+     * sort=fee, highest estimated late fee first
+     */
+    @GetMapping("/overdue")
+    public void getOverdueRentals(
+            @RequestParam(defaultValue = RentalService.SORT_DAYS_LATE) String sort,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            HttpServletResponse response) throws IOException {
+        Page<RentalItem> items = rentalService.getOverdueRentals(sort, page, size);
+        LocalDate today = LocalDate.now();
+        response.setHeader(ItemController.TOTAL_COUNT_HEADER, String.valueOf(items.getTotalElements()));
+        jsonStreamWriter.writeArray(response, items.getContent(), OverdueRentalResponse.class,
+            item -> OverdueRentalResponse.from(item, rentalService.daysLate(item, today),
+                rentalService.estimatedLateFee(item, today)));
     }
 }
-
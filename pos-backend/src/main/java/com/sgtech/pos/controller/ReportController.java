@@ -0,0 +1,72 @@
+package com.sgtech.pos.controller;
+
+import com.sgtech.pos.dto.DailySalesReport;
+import com.sgtech.pos.dto.EmployeeSalesReport;
+import com.sgtech.pos.dto.ItemSalesReport;
+import com.sgtech.pos.dto.RollupBackfillResponse;
+import com.sgtech.pos.service.ReportService;
+import com.sgtech.pos.service.SalesRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reports")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ReportController {
+    
+    private static final int DEFAULT_DAYS = 30;
+    
+    @Autowired
+    private ReportService reportService;
+    
+    @Autowired
+    private SalesRollupService salesRollupService;
+    
+    @GetMapping("/daily")
+    public ResponseEntity<List<DailySalesReport>> getDailySales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to == null ? LocalDate.now() : to;
+        return ResponseEntity.ok(reportService.getDailySales(start(from, end), end));
+    }
+    
+    @GetMapping("/items")
+    public ResponseEntity<List<ItemSalesReport>> getTopItems(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "20") int limit) {
+        LocalDate end = to == null ? LocalDate.now() : to;
+        return ResponseEntity.ok(reportService.getTopItems(start(from, end), end, limit));
+    }
+    
+    @GetMapping("/employees")
+    public ResponseEntity<List<EmployeeSalesReport>> getEmployeeSales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to == null ? LocalDate.now() : to;
+        return ResponseEntity.ok(reportService.getEmployeeSales(start(from, end), end));
+    }
+    
+    /**
+     * Rebuilds the rollups from raw sales and returns, for the whole
+     * history unless an inclusive date range is given
+     */
+    @PostMapping("/backfill")
+    public ResponseEntity<RollupBackfillResponse> backfill(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from != null && to != null && to.isBefore(from)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(salesRollupService.rebuild(from, to == null ? null : to.plusDays(1)));
+    }
+    
+    private static LocalDate start(LocalDate from, LocalDate end) {
+        return from == null ? end.minusDays(DEFAULT_DAYS - 1) : from;
+    }
+}
@@ -1,7 +1,9 @@
 package com.sgtech.pos.controller;
 
 import com.sgtech.pos.dto.ReturnRequest;
+import com.sgtech.pos.dto.ReturnResponse;
 import com.sgtech.pos.model.Return;
+import com.sgtech.pos.service.IdempotencyService;
 import com.sgtech.pos.service.ReturnService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,22 +20,28 @@ public class ReturnController {
     @Autowired
     private ReturnService returnService;
     
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
     @PostMapping
-    public ResponseEntity<Return> createReturn(
+    public ResponseEntity<ReturnResponse> createReturn(
             @RequestHeader("X-Employee-Id") UUID employeeId,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody ReturnRequest request) {
-        try {
-            Return returnEntity = returnService.processReturn(employeeId, request);
-            return ResponseEntity.ok(returnEntity);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().build();
-        }
+        return idempotencyService.execute("returns:" + employeeId, idempotencyKey, request, () -> {
+            try {
+                Return returnEntity = returnService.processReturn(employeeId, request);
+                return ResponseEntity.ok(ReturnResponse.from(returnEntity));
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        });
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Return> getReturnById(@PathVariable UUID id) {
+    public ResponseEntity<ReturnResponse> getReturnById(@PathVariable UUID id) {
         return returnService.getReturnById(id)
-                .map(ResponseEntity::ok)
+                .map(returnEntity -> ResponseEntity.ok(ReturnResponse.from(returnEntity)))
                 .orElse(ResponseEntity.notFound().build());
     }
 }
@@ -1,14 +1,26 @@
 package com.sgtech.pos.controller;
 
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.sgtech.pos.dto.SaleBatchRequest;
+import com.sgtech.pos.dto.SaleBatchResponse;
+import com.sgtech.pos.dto.SalePage;
 import com.sgtech.pos.dto.SaleRequest;
+import com.sgtech.pos.dto.SaleResponse;
 import com.sgtech.pos.model.Sale;
+import com.sgtech.pos.service.IdempotencyService;
+import com.sgtech.pos.service.SaleBatchService;
 import com.sgtech.pos.service.SaleService;
+import com.sgtech.pos.util.JsonStreamWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @RestController
@@ -19,29 +31,91 @@ public class SaleController {
     @Autowired
     private SaleService saleService;
     
+    @Autowired
+    private SaleBatchService saleBatchService;
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
+    @Autowired
+    private JsonStreamWriter jsonStreamWriter;
+    
     @PostMapping
-    public ResponseEntity<Sale> createSale(
+    public ResponseEntity<SaleResponse> createSale(
             @RequestHeader("X-Employee-Id") UUID employeeId,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody SaleRequest request) {
-        try {
-            Sale sale = saleService.processSale(employeeId, request);
-            return ResponseEntity.ok(sale);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().build();
-        }
+        return idempotencyService.execute("sales:" + employeeId, idempotencyKey, request, () -> {
+            try {
+                Sale sale = saleService.processSale(employeeId, request);
+                return ResponseEntity.ok(SaleResponse.from(sale));
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        });
+    }
+    
+    @PostMapping("/batch")
+    public ResponseEntity<SaleBatchResponse> createSales(
+            @RequestHeader("X-Employee-Id") UUID employeeId,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody SaleBatchRequest request) {
+        return idempotencyService.execute("sales-batch:" + employeeId, idempotencyKey, request, () -> {
+            try {
+                SaleBatchResponse response = saleBatchService.processBatch(employeeId, request.getSales());
+                return ResponseEntity.ok(response);
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        });
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Sale> getSaleById(@PathVariable UUID id) {
+    public ResponseEntity<SaleResponse> getSaleById(@PathVariable UUID id) {
         return saleService.getSaleById(id)
-                .map(ResponseEntity::ok)
+                .map(sale -> ResponseEntity.ok(SaleResponse.from(sale)))
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    @GetMapping
+    public ResponseEntity<SalePage> getSales(
+            @RequestParam(required = false) UUID employeeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(saleService.getSales(employeeId, from, to, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/employee/{employeeId}")
-    public ResponseEntity<List<Sale>> getSalesByEmployee(@PathVariable UUID employeeId) {
-        List<Sale> sales = saleService.getSalesByEmployee(employeeId);
-        return ResponseEntity.ok(sales);
+    public ResponseEntity<SalePage> getSalesByEmployee(
+            @PathVariable UUID employeeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return getSales(employeeId, from, to, cursor, limit);
+    }
+    
+    @GetMapping(value = "/export", produces = JsonStreamWriter.NDJSON)
+    public void exportSales(
+            @RequestParam(required = false) UUID employeeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletResponse response) throws IOException {
+        try (SequenceWriter lines = jsonStreamWriter.openLines(response, SaleResponse.class)) {
+            saleService.exportSales(employeeId, from, to, sale -> {
+                try {
+                    lines.write(SaleResponse.from(sale));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
     }
 }
 
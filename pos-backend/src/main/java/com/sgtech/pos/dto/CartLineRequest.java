@@ -0,0 +1,37 @@
+package com.sgtech.pos.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public class CartLineRequest {
+    
+    @NotNull(message = "Item ID is required")
+    private Integer itemId;
+    
+    @NotNull(message = "Quantity is required")
+    @Min(value = 0, message = "Quantity cannot be negative")
+    private Integer quantity;
+    
+    public CartLineRequest() {}
+    
+    public CartLineRequest(Integer itemId, Integer quantity) {
+        this.itemId = itemId;
+        this.quantity = quantity;
+    }
+    
+    public Integer getItemId() {
+        return itemId;
+    }
+    
+    public void setItemId(Integer itemId) {
+        this.itemId = itemId;
+    }
+    
+    public Integer getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+}
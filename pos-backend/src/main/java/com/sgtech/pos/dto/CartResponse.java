@@ -0,0 +1,152 @@
+package com.sgtech.pos.dto;
+
+import com.sgtech.pos.service.Cart;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class CartResponse {
+    private UUID id;
+    private List<Line> lines;
+    private BigDecimal subtotal;
+    private BigDecimal taxAmount;
+    private BigDecimal discountAmount;
+    private BigDecimal total;
+    private String couponCode;
+    
+    public CartResponse() {}
+    
+    public static CartResponse from(Cart cart) {
+        CartResponse response = new CartResponse();
+        synchronized (cart) {
+            response.id = cart.getId();
+            response.lines = new ArrayList<>();
+            for (Cart.Line line : cart.getLines()) {
+                response.lines.add(new Line(line.getItemId(), line.getName(), line.getQuantity(),
+                    line.getUnitPrice(), line.getSubtotal()));
+            }
+            response.subtotal = cart.getSubtotal();
+            response.taxAmount = cart.getTaxAmount();
+            response.discountAmount = cart.getDiscountAmount();
+            response.total = cart.getTotal();
+            response.couponCode = cart.getCouponCode();
+        }
+        return response;
+    }
+    
+    public UUID getId() {
+        return id;
+    }
+    
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    
+    public List<Line> getLines() {
+        return lines;
+    }
+    
+    public void setLines(List<Line> lines) {
+        this.lines = lines;
+    }
+    
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+    
+    public void setSubtotal(BigDecimal subtotal) {
+        this.subtotal = subtotal;
+    }
+    
+    public BigDecimal getTaxAmount() {
+        return taxAmount;
+    }
+    
+    public void setTaxAmount(BigDecimal taxAmount) {
+        this.taxAmount = taxAmount;
+    }
+    
+    public BigDecimal getDiscountAmount() {
+        return discountAmount;
+    }
+    
+    public void setDiscountAmount(BigDecimal discountAmount) {
+        this.discountAmount = discountAmount;
+    }
+    
+    public BigDecimal getTotal() {
+        return total;
+    }
+    
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+    
+    public String getCouponCode() {
+        return couponCode;
+    }
+    
+    public void setCouponCode(String couponCode) {
+        this.couponCode = couponCode;
+    }
+    
+    public static class Line {
+        private Integer itemId;
+        private String name;
+        private int quantity;
+        private BigDecimal unitPrice;
+        private BigDecimal subtotal;
+        
+        public Line() {}
+        
+        public Line(Integer itemId, String name, int quantity, BigDecimal unitPrice, BigDecimal subtotal) {
+            this.itemId = itemId;
+            this.name = name;
+            this.quantity = quantity;
+            this.unitPrice = unitPrice;
+            this.subtotal = subtotal;
+        }
+        
+        public Integer getItemId() {
+            return itemId;
+        }
+        
+        public void setItemId(Integer itemId) {
+            this.itemId = itemId;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+        public int getQuantity() {
+            return quantity;
+        }
+        
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+        
+        public BigDecimal getUnitPrice() {
+            return unitPrice;
+        }
+        
+        public void setUnitPrice(BigDecimal unitPrice) {
+            this.unitPrice = unitPrice;
+        }
+        
+        public BigDecimal getSubtotal() {
+            return subtotal;
+        }
+        
+        public void setSubtotal(BigDecimal subtotal) {
+            this.subtotal = subtotal;
+        }
+    }
+}
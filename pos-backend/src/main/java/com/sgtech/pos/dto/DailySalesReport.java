@@ -0,0 +1,92 @@
+package com.sgtech.pos.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class DailySalesReport {
+    private LocalDate date;
+    private long transactions;
+    private BigDecimal subtotal;
+    private BigDecimal tax;
+    private BigDecimal discount;
+    private BigDecimal total;
+    private long returns;
+    private BigDecimal refunds;
+    
+    public DailySalesReport() {}
+    
+    public DailySalesReport(LocalDate date, long transactions, BigDecimal subtotal, BigDecimal tax, BigDecimal discount, BigDecimal total, long returns, BigDecimal refunds) {
+        this.date = date;
+        this.transactions = transactions;
+        this.subtotal = subtotal;
+        this.tax = tax;
+        this.discount = discount;
+        this.total = total;
+        this.returns = returns;
+        this.refunds = refunds;
+    }
+    
+    public LocalDate getDate() {
+        return date;
+    }
+    
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+    
+    public long getTransactions() {
+        return transactions;
+    }
+    
+    public void setTransactions(long transactions) {
+        this.transactions = transactions;
+    }
+    
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+    
+    public void setSubtotal(BigDecimal subtotal) {
+        this.subtotal = subtotal;
+    }
+    
+    public BigDecimal getTax() {
+        return tax;
+    }
+    
+    public void setTax(BigDecimal tax) {
+        this.tax = tax;
+    }
+    
+    public BigDecimal getDiscount() {
+        return discount;
+    }
+    
+    public void setDiscount(BigDecimal discount) {
+        this.discount = discount;
+    }
+    
+    public BigDecimal getTotal() {
+        return total;
+    }
+    
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+    
+    public long getReturns() {
+        return returns;
+    }
+    
+    public void setReturns(long returns) {
+        this.returns = returns;
+    }
+    
+    public BigDecimal getRefunds() {
+        return refunds;
+    }
+    
+    public void setRefunds(BigDecimal refunds) {
+        this.refunds = refunds;
+    }
+}
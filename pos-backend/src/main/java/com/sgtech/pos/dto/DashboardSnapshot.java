@@ -0,0 +1,164 @@
+package com.sgtech.pos.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Figures pushed to live dashboards: sales per minute over the recent
+ * window, the window totals and the best-selling items in it.
+ */
+public class DashboardSnapshot {
+    private LocalDateTime generatedAt;
+    private int windowMinutes;
+    private long transactions;
+    private BigDecimal revenue;
+    private List<Minute> minutes;
+    private List<TopItem> topItems;
+    
+    public DashboardSnapshot() {}
+    
+    public DashboardSnapshot(LocalDateTime generatedAt, int windowMinutes, long transactions, BigDecimal revenue,
+                             List<Minute> minutes, List<TopItem> topItems) {
+        this.generatedAt = generatedAt;
+        this.windowMinutes = windowMinutes;
+        this.transactions = transactions;
+        this.revenue = revenue;
+        this.minutes = minutes;
+        this.topItems = topItems;
+    }
+    
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+    
+    public void setGeneratedAt(LocalDateTime generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+    
+    public int getWindowMinutes() {
+        return windowMinutes;
+    }
+    
+    public void setWindowMinutes(int windowMinutes) {
+        this.windowMinutes = windowMinutes;
+    }
+    
+    public long getTransactions() {
+        return transactions;
+    }
+    
+    public void setTransactions(long transactions) {
+        this.transactions = transactions;
+    }
+    
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+    
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+    
+    public List<Minute> getMinutes() {
+        return minutes;
+    }
+    
+    public void setMinutes(List<Minute> minutes) {
+        this.minutes = minutes;
+    }
+    
+    public List<TopItem> getTopItems() {
+        return topItems;
+    }
+    
+    public void setTopItems(List<TopItem> topItems) {
+        this.topItems = topItems;
+    }
+    
+    public static class Minute {
+        private LocalDateTime minute;
+        private long transactions;
+        private BigDecimal revenue;
+        
+        public Minute() {}
+        
+        public Minute(LocalDateTime minute, long transactions, BigDecimal revenue) {
+            this.minute = minute;
+            this.transactions = transactions;
+            this.revenue = revenue;
+        }
+        
+        public LocalDateTime getMinute() {
+            return minute;
+        }
+        
+        public void setMinute(LocalDateTime minute) {
+            this.minute = minute;
+        }
+        
+        public long getTransactions() {
+            return transactions;
+        }
+        
+        public void setTransactions(long transactions) {
+            this.transactions = transactions;
+        }
+        
+        public BigDecimal getRevenue() {
+            return revenue;
+        }
+        
+        public void setRevenue(BigDecimal revenue) {
+            this.revenue = revenue;
+        }
+    }
+    
+    public static class TopItem {
+        private Integer itemId;
+        private String name;
+        private long quantity;
+        private BigDecimal revenue;
+        
+        public TopItem() {}
+        
+        public TopItem(Integer itemId, String name, long quantity, BigDecimal revenue) {
+            this.itemId = itemId;
+            this.name = name;
+            this.quantity = quantity;
+            this.revenue = revenue;
+        }
+        
+        public Integer getItemId() {
+            return itemId;
+        }
+        
+        public void setItemId(Integer itemId) {
+            this.itemId = itemId;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+        public long getQuantity() {
+            return quantity;
+        }
+        
+        public void setQuantity(long quantity) {
+            this.quantity = quantity;
+        }
+        
+        public BigDecimal getRevenue() {
+            return revenue;
+        }
+        
+        public void setRevenue(BigDecimal revenue) {
+            this.revenue = revenue;
+        }
+    }
+}
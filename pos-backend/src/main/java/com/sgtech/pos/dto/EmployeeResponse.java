@@ -0,0 +1,65 @@
+package com.sgtech.pos.dto;
+
+import com.sgtech.pos.model.Employee;
+
+import java.util.UUID;
+
+public class EmployeeResponse {
+    private UUID id;
+    private String username;
+    private String firstName;
+    private String lastName;
+    private String position;
+    
+    public EmployeeResponse() {}
+    
+    public static EmployeeResponse from(Employee employee) {
+        EmployeeResponse response = new EmployeeResponse();
+        response.id = employee.getId();
+        response.username = employee.getUsername();
+        response.firstName = employee.getFirstName();
+        response.lastName = employee.getLastName();
+        response.position = employee.getPosition();
+        return response;
+    }
+    
+    public UUID getId() {
+        return id;
+    }
+    
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public String getFirstName() {
+        return firstName;
+    }
+    
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+    
+    public String getLastName() {
+        return lastName;
+    }
+    
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+    
+    public String getPosition() {
+        return position;
+    }
+    
+    public void setPosition(String position) {
+        this.position = position;
+    }
+}
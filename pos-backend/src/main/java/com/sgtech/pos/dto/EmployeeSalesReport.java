@@ -0,0 +1,52 @@
+package com.sgtech.pos.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public class EmployeeSalesReport {
+    private UUID employeeId;
+    private String username;
+    private long transactions;
+    private BigDecimal total;
+    
+    public EmployeeSalesReport() {}
+    
+    public EmployeeSalesReport(UUID employeeId, String username, long transactions, BigDecimal total) {
+        this.employeeId = employeeId;
+        this.username = username;
+        this.transactions = transactions;
+        this.total = total;
+    }
+    
+    public UUID getEmployeeId() {
+        return employeeId;
+    }
+    
+    public void setEmployeeId(UUID employeeId) {
+        this.employeeId = employeeId;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public long getTransactions() {
+        return transactions;
+    }
+    
+    public void setTransactions(long transactions) {
+        this.transactions = transactions;
+    }
+    
+    public BigDecimal getTotal() {
+        return total;
+    }
+    
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+}
@@ -0,0 +1,44 @@
+package com.sgtech.pos.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Compact item state pushed to clients when stock or price changes
+ */
+public class ItemDelta {
+    private Integer itemId;
+    private int quantity;
+    private BigDecimal price;
+    
+    public ItemDelta() {}
+    
+    public ItemDelta(Integer itemId, int quantity, BigDecimal price) {
+        this.itemId = itemId;
+        this.quantity = quantity;
+        this.price = price;
+    }
+    
+    public Integer getItemId() {
+        return itemId;
+    }
+    
+    public void setItemId(Integer itemId) {
+        this.itemId = itemId;
+    }
+    
+    public int getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+    
+    public BigDecimal getPrice() {
+        return price;
+    }
+    
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+}
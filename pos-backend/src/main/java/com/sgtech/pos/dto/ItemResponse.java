@@ -0,0 +1,84 @@
+package com.sgtech.pos.dto;
+
+import com.sgtech.pos.model.Item;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public class ItemResponse {
+    private UUID id;
+    private Integer itemId;
+    private String name;
+    private BigDecimal price;
+    private Integer quantity;
+    private Integer reorderThreshold;
+    
+    public ItemResponse() {}
+    
+    public static ItemResponse from(Item item) {
+        ItemResponse response = new ItemResponse();
+        response.id = item.getId();
+        response.itemId = item.getItemId();
+        response.name = item.getName();
+        response.price = item.getPrice();
+        response.quantity = item.getQuantity();
+        response.reorderThreshold = item.getReorderThreshold();
+        return response;
+    }
+    
+    // With the stock engine's available quantity, which differs from
+    // items.quantity while the ledger engine has changes to write back
+    public static ItemResponse from(Item item, int available) {
+        ItemResponse response = from(item);
+        response.quantity = available;
+        return response;
+    }
+    
+    public UUID getId() {
+        return id;
+    }
+    
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    
+    public Integer getItemId() {
+        return itemId;
+    }
+    
+    public void setItemId(Integer itemId) {
+        this.itemId = itemId;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public BigDecimal getPrice() {
+        return price;
+    }
+    
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+    
+    public Integer getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+    
+    public Integer getReorderThreshold() {
+        return reorderThreshold;
+    }
+    
+    public void setReorderThreshold(Integer reorderThreshold) {
+        this.reorderThreshold = reorderThreshold;
+    }
+}
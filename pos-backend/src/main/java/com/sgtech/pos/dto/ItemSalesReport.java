@@ -0,0 +1,51 @@
+package com.sgtech.pos.dto;
+
+import java.math.BigDecimal;
+
+public class ItemSalesReport {
+    private Integer itemId;
+    private String name;
+    private long quantitySold;
+    private BigDecimal revenue;
+    
+    public ItemSalesReport() {}
+    
+    public ItemSalesReport(Integer itemId, String name, long quantitySold, BigDecimal revenue) {
+        this.itemId = itemId;
+        this.name = name;
+        this.quantitySold = quantitySold;
+        this.revenue = revenue;
+    }
+    
+    public Integer getItemId() {
+        return itemId;
+    }
+    
+    public void setItemId(Integer itemId) {
+        this.itemId = itemId;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public long getQuantitySold() {
+        return quantitySold;
+    }
+    
+    public void setQuantitySold(long quantitySold) {
+        this.quantitySold = quantitySold;
+    }
+    
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+    
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+}
@@ -0,0 +1,121 @@
+package com.sgtech.pos.dto;
+
+import com.sgtech.pos.model.RentalItem;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * One line of the store-wide overdue rentals report
+ */
+public class OverdueRentalResponse {
+    private UUID rentalItemId;
+    private UUID rentalId;
+    private String customerPhone;
+    private Integer itemId;
+    private String itemName;
+    // Units still out
+    private int quantity;
+    private BigDecimal unitPrice;
+    private LocalDate dueDate;
+    private long daysLate;
+    private BigDecimal estimatedFee;
+    
+    public OverdueRentalResponse() {}
+    
+    public static OverdueRentalResponse from(RentalItem rentalItem, long daysLate, BigDecimal estimatedFee) {
+        OverdueRentalResponse response = new OverdueRentalResponse();
+        response.rentalItemId = rentalItem.getId();
+        response.rentalId = rentalItem.getRental().getId();
+        response.customerPhone = rentalItem.getRental().getCustomer().getPhone();
+        response.itemId = rentalItem.getItem().getItemId();
+        response.itemName = rentalItem.getItem().getName();
+        response.quantity = rentalItem.getOutstandingQuantity();
+        response.unitPrice = rentalItem.getUnitPrice();
+        response.dueDate = rentalItem.getRental().getDueDate();
+        response.daysLate = daysLate;
+        response.estimatedFee = estimatedFee;
+        return response;
+    }
+    
+    public UUID getRentalItemId() {
+        return rentalItemId;
+    }
+    
+    public void setRentalItemId(UUID rentalItemId) {
+        this.rentalItemId = rentalItemId;
+    }
+    
+    public UUID getRentalId() {
+        return rentalId;
+    }
+    
+    public void setRentalId(UUID rentalId) {
+        this.rentalId = rentalId;
+    }
+    
+    public String getCustomerPhone() {
+        return customerPhone;
+    }
+    
+    public void setCustomerPhone(String customerPhone) {
+        this.customerPhone = customerPhone;
+    }
+    
+    public Integer getItemId() {
+        return itemId;
+    }
+    
+    public void setItemId(Integer itemId) {
+        this.itemId = itemId;
+    }
+    
+    public String getItemName() {
+        return itemName;
+    }
+    
+    public void setItemName(String itemName) {
+        this.itemName = itemName;
+    }
+    
+    public int getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+    
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+    
+    public void setUnitPrice(BigDecimal unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+    
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+    
+    public void setDueDate(LocalDate dueDate) {
+        this.dueDate = dueDate;
+    }
+    
+    public long getDaysLate() {
+        return daysLate;
+    }
+    
+    public void setDaysLate(long daysLate) {
+        this.daysLate = daysLate;
+    }
+    
+    public BigDecimal getEstimatedFee() {
+        return estimatedFee;
+    }
+    
+    public void setEstimatedFee(BigDecimal estimatedFee) {
+        this.estimatedFee = estimatedFee;
+    }
+}
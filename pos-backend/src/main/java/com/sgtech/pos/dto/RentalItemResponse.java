@@ -0,0 +1,127 @@
+package com.sgtech.pos.dto;
+
+import com.sgtech.pos.model.RentalItem;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public class RentalItemResponse {
+    private UUID id;
+    private UUID rentalId;
+    private Integer itemId;
+    private String itemName;
+    private int quantity;
+    private int returnedQuantity;
+    private BigDecimal unitPrice;
+    private LocalDate dueDate;
+    private boolean returned;
+    private LocalDate returnDate;
+    private int daysOverdue;
+    
+    public RentalItemResponse() {}
+    
+    public static RentalItemResponse from(RentalItem rentalItem) {
+        RentalItemResponse response = new RentalItemResponse();
+        response.id = rentalItem.getId();
+        response.rentalId = rentalItem.getRental().getId();
+        response.itemId = rentalItem.getItem().getItemId();
+        response.itemName = rentalItem.getItem().getName();
+        response.quantity = rentalItem.getQuantity();
+        response.returnedQuantity = rentalItem.getReturnedQuantity() == null ? 0 : rentalItem.getReturnedQuantity();
+        response.unitPrice = rentalItem.getUnitPrice();
+        response.dueDate = rentalItem.getRental().getDueDate();
+        response.returned = Boolean.TRUE.equals(rentalItem.getReturned());
+        response.returnDate = rentalItem.getReturnDate();
+        response.daysOverdue = rentalItem.getDaysOverdue() == null ? 0 : rentalItem.getDaysOverdue();
+        return response;
+    }
+    
+    public UUID getId() {
+        return id;
+    }
+    
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    
+    public UUID getRentalId() {
+        return rentalId;
+    }
+    
+    public void setRentalId(UUID rentalId) {
+        this.rentalId = rentalId;
+    }
+    
+    public Integer getItemId() {
+        return itemId;
+    }
+    
+    public void setItemId(Integer itemId) {
+        this.itemId = itemId;
+    }
+    
+    public String getItemName() {
+        return itemName;
+    }
+    
+    public void setItemName(String itemName) {
+        this.itemName = itemName;
+    }
+    
+    public int getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+    
+    public int getReturnedQuantity() {
+        return returnedQuantity;
+    }
+    
+    public void setReturnedQuantity(int returnedQuantity) {
+        this.returnedQuantity = returnedQuantity;
+    }
+    
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+    
+    public void setUnitPrice(BigDecimal unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+    
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+    
+    public void setDueDate(LocalDate dueDate) {
+        this.dueDate = dueDate;
+    }
+    
+    public boolean getReturned() {
+        return returned;
+    }
+    
+    public void setReturned(boolean returned) {
+        this.returned = returned;
+    }
+    
+    public LocalDate getReturnDate() {
+        return returnDate;
+    }
+    
+    public void setReturnDate(LocalDate returnDate) {
+        this.returnDate = returnDate;
+    }
+    
+    public int getDaysOverdue() {
+        return daysOverdue;
+    }
+    
+    public void setDaysOverdue(int daysOverdue) {
+        this.daysOverdue = daysOverdue;
+    }
+}
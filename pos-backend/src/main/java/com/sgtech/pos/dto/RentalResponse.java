@@ -0,0 +1,112 @@
+package com.sgtech.pos.dto;
+
+import com.sgtech.pos.model.Rental;
+import com.sgtech.pos.model.RentalItem;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class RentalResponse {
+    private UUID id;
+    private String customerPhone;
+    private UUID employeeId;
+    private LocalDateTime rentalDate;
+    private LocalDate dueDate;
+    private BigDecimal totalAmount;
+    private BigDecimal taxAmount;
+    private List<RentalItemResponse> lines;
+    
+    public RentalResponse() {}
+    
+    public static RentalResponse from(Rental rental) {
+        return from(rental, rental.getCustomer().getPhone());
+    }
+    
+    // For a rental just made, whose customer may be an uninitialized
+    // reference that the request's phone saves loading
+    public static RentalResponse from(Rental rental, String customerPhone) {
+        RentalResponse response = new RentalResponse();
+        response.id = rental.getId();
+        response.customerPhone = customerPhone;
+        response.employeeId = rental.getEmployee().getId();
+        response.rentalDate = rental.getRentalDate();
+        response.dueDate = rental.getDueDate();
+        response.totalAmount = rental.getTotalAmount();
+        response.taxAmount = rental.getTaxAmount();
+        response.lines = new ArrayList<>();
+        if (rental.getRentalItems() != null) {
+            for (RentalItem rentalItem : rental.getRentalItems()) {
+                response.lines.add(RentalItemResponse.from(rentalItem));
+            }
+        }
+        return response;
+    }
+    
+    public UUID getId() {
+        return id;
+    }
+    
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    
+    public String getCustomerPhone() {
+        return customerPhone;
+    }
+    
+    public void setCustomerPhone(String customerPhone) {
+        this.customerPhone = customerPhone;
+    }
+    
+    public UUID getEmployeeId() {
+        return employeeId;
+    }
+    
+    public void setEmployeeId(UUID employeeId) {
+        this.employeeId = employeeId;
+    }
+    
+    public LocalDateTime getRentalDate() {
+        return rentalDate;
+    }
+    
+    public void setRentalDate(LocalDateTime rentalDate) {
+        this.rentalDate = rentalDate;
+    }
+    
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+    
+    public void setDueDate(LocalDate dueDate) {
+        this.dueDate = dueDate;
+    }
+    
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+    
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+    
+    public BigDecimal getTaxAmount() {
+        return taxAmount;
+    }
+    
+    public void setTaxAmount(BigDecimal taxAmount) {
+        this.taxAmount = taxAmount;
+    }
+    
+    public List<RentalItemResponse> getLines() {
+        return lines;
+    }
+    
+    public void setLines(List<RentalItemResponse> lines) {
+        this.lines = lines;
+    }
+}
@@ -0,0 +1,145 @@
+package com.sgtech.pos.dto;
+
+import com.sgtech.pos.model.Return;
+import com.sgtech.pos.model.ReturnItem;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class ReturnResponse {
+    private UUID id;
+    private UUID rentalId;
+    private UUID employeeId;
+    private LocalDateTime returnDate;
+    private BigDecimal totalRefund;
+    private List<Line> lines;
+    
+    public ReturnResponse() {}
+    
+    public static ReturnResponse from(Return returnEntity) {
+        ReturnResponse response = new ReturnResponse();
+        response.id = returnEntity.getId();
+        response.rentalId = returnEntity.getRental().getId();
+        response.employeeId = returnEntity.getEmployee().getId();
+        response.returnDate = returnEntity.getReturnDate();
+        response.totalRefund = returnEntity.getTotalRefund();
+        response.lines = new ArrayList<>();
+        if (returnEntity.getReturnItems() != null) {
+            for (ReturnItem returnItem : returnEntity.getReturnItems()) {
+                response.lines.add(new Line(returnItem.getRentalItem().getId(),
+                    returnItem.getRentalItem().getItem().getItemId(), returnItem.getRentalItem().getItem().getName(),
+                    returnItem.getQuantity(), returnItem.getRefundAmount()));
+            }
+        }
+        return response;
+    }
+    
+    public UUID getId() {
+        return id;
+    }
+    
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    
+    public UUID getRentalId() {
+        return rentalId;
+    }
+    
+    public void setRentalId(UUID rentalId) {
+        this.rentalId = rentalId;
+    }
+    
+    public UUID getEmployeeId() {
+        return employeeId;
+    }
+    
+    public void setEmployeeId(UUID employeeId) {
+        this.employeeId = employeeId;
+    }
+    
+    public LocalDateTime getReturnDate() {
+        return returnDate;
+    }
+    
+    public void setReturnDate(LocalDateTime returnDate) {
+        this.returnDate = returnDate;
+    }
+    
+    public BigDecimal getTotalRefund() {
+        return totalRefund;
+    }
+    
+    public void setTotalRefund(BigDecimal totalRefund) {
+        this.totalRefund = totalRefund;
+    }
+    
+    public List<Line> getLines() {
+        return lines;
+    }
+    
+    public void setLines(List<Line> lines) {
+        this.lines = lines;
+    }
+    
+    public static class Line {
+        private UUID rentalItemId;
+        private Integer itemId;
+        private String itemName;
+        private int quantity;
+        private BigDecimal refundAmount;
+        
+        public Line() {}
+        
+        public Line(UUID rentalItemId, Integer itemId, String itemName, int quantity, BigDecimal refundAmount) {
+            this.rentalItemId = rentalItemId;
+            this.itemId = itemId;
+            this.itemName = itemName;
+            this.quantity = quantity;
+            this.refundAmount = refundAmount;
+        }
+        
+        public UUID getRentalItemId() {
+            return rentalItemId;
+        }
+        
+        public void setRentalItemId(UUID rentalItemId) {
+            this.rentalItemId = rentalItemId;
+        }
+        
+        public Integer getItemId() {
+            return itemId;
+        }
+        
+        public void setItemId(Integer itemId) {
+            this.itemId = itemId;
+        }
+        
+        public String getItemName() {
+            return itemName;
+        }
+        
+        public void setItemName(String itemName) {
+            this.itemName = itemName;
+        }
+        
+        public int getQuantity() {
+            return quantity;
+        }
+        
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+        
+        public BigDecimal getRefundAmount() {
+            return refundAmount;
+        }
+        
+        public void setRefundAmount(BigDecimal refundAmount) {
+            this.refundAmount = refundAmount;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.sgtech.pos.dto;
+
+public class RollupBackfillResponse {
+    private long days;
+    private int chunks;
+    private long elapsedMillis;
+    
+    public RollupBackfillResponse() {}
+    
+    public RollupBackfillResponse(long days, int chunks, long elapsedMillis) {
+        this.days = days;
+        this.chunks = chunks;
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    public long getDays() {
+        return days;
+    }
+    
+    public void setDays(long days) {
+        this.days = days;
+    }
+    
+    public int getChunks() {
+        return chunks;
+    }
+    
+    public void setChunks(int chunks) {
+        this.chunks = chunks;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+}
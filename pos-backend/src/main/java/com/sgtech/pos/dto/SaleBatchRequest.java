@@ -0,0 +1,24 @@
+package com.sgtech.pos.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public class SaleBatchRequest {
+    
+    @NotEmpty(message = "Sales are required")
+    @Size(max = 1000, message = "At most 1000 sales per batch")
+    @Valid
+    private List<SaleRequest> sales;
+    
+    public SaleBatchRequest() {}
+    
+    public List<SaleRequest> getSales() {
+        return sales;
+    }
+    
+    public void setSales(List<SaleRequest> sales) {
+        this.sales = sales;
+    }
+}
@@ -0,0 +1,117 @@
+package com.sgtech.pos.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public class SaleBatchResponse {
+    private int succeeded;
+    private int failed;
+    private List<Result> results;
+    
+    public SaleBatchResponse() {}
+    
+    public SaleBatchResponse(List<Result> results) {
+        this.results = results;
+        for (Result result : results) {
+            if (result.isSuccess()) {
+                succeeded++;
+            } else {
+                failed++;
+            }
+        }
+    }
+    
+    public int getSucceeded() {
+        return succeeded;
+    }
+    
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+    
+    public List<Result> getResults() {
+        return results;
+    }
+    
+    public void setResults(List<Result> results) {
+        this.results = results;
+    }
+    
+    /**
+     * Outcome of one queued sale, in the same position as in the request
+     */
+    public static class Result {
+        private int index;
+        private boolean success;
+        private UUID saleId;
+        private BigDecimal finalTotal;
+        private String error;
+        
+        public Result() {}
+        
+        public static Result success(int index, UUID saleId, BigDecimal finalTotal) {
+            Result result = new Result();
+            result.index = index;
+            result.success = true;
+            result.saleId = saleId;
+            result.finalTotal = finalTotal;
+            return result;
+        }
+        
+        public static Result failure(int index, String error) {
+            Result result = new Result();
+            result.index = index;
+            result.error = error;
+            return result;
+        }
+        
+        public int getIndex() {
+            return index;
+        }
+        
+        public void setIndex(int index) {
+            this.index = index;
+        }
+        
+        public boolean isSuccess() {
+            return success;
+        }
+        
+        public void setSuccess(boolean success) {
+            this.success = success;
+        }
+        
+        public UUID getSaleId() {
+            return saleId;
+        }
+        
+        public void setSaleId(UUID saleId) {
+            this.saleId = saleId;
+        }
+        
+        public BigDecimal getFinalTotal() {
+            return finalTotal;
+        }
+        
+        public void setFinalTotal(BigDecimal finalTotal) {
+            this.finalTotal = finalTotal;
+        }
+        
+        public String getError() {
+            return error;
+        }
+        
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
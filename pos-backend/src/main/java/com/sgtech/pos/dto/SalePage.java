@@ -0,0 +1,35 @@
+package com.sgtech.pos.dto;
+
+import java.util.List;
+
+/**
+ * One page of sales history. nextCursor is null on the last page;
+ * otherwise it is passed back unchanged to fetch the following page.
+ */
+public class SalePage {
+    private List<SaleResponse> sales;
+    private String nextCursor;
+    
+    public SalePage() {}
+    
+    public SalePage(List<SaleResponse> sales, String nextCursor) {
+        this.sales = sales;
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<SaleResponse> getSales() {
+        return sales;
+    }
+    
+    public void setSales(List<SaleResponse> sales) {
+        this.sales = sales;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
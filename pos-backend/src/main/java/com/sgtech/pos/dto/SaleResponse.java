@@ -0,0 +1,174 @@
+package com.sgtech.pos.dto;
+
+import com.sgtech.pos.model.Sale;
+import com.sgtech.pos.model.SaleItem;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class SaleResponse {
+    private UUID id;
+    private UUID employeeId;
+    private BigDecimal totalAmount;
+    private BigDecimal taxAmount;
+    private BigDecimal discountAmount;
+    private BigDecimal finalTotal;
+    private String couponCode;
+    private LocalDateTime transactionDate;
+    private List<Line> lines;
+    
+    public SaleResponse() {}
+    
+    public static SaleResponse from(Sale sale) {
+        SaleResponse response = new SaleResponse();
+        response.id = sale.getId();
+        response.employeeId = sale.getEmployee().getId();
+        response.totalAmount = sale.getTotalAmount();
+        response.taxAmount = sale.getTaxAmount();
+        response.discountAmount = sale.getDiscountAmount();
+        response.finalTotal = sale.getFinalTotal();
+        response.couponCode = sale.getCouponCode();
+        response.transactionDate = sale.getTransactionDate();
+        response.lines = new ArrayList<>();
+        if (sale.getSaleItems() != null) {
+            for (SaleItem saleItem : sale.getSaleItems()) {
+                response.lines.add(new Line(saleItem.getItem().getItemId(), saleItem.getItem().getName(),
+                    saleItem.getQuantity(), saleItem.getUnitPrice(), saleItem.getSubtotal()));
+            }
+        }
+        return response;
+    }
+    
+    public UUID getId() {
+        return id;
+    }
+    
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    
+    public UUID getEmployeeId() {
+        return employeeId;
+    }
+    
+    public void setEmployeeId(UUID employeeId) {
+        this.employeeId = employeeId;
+    }
+    
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+    
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+    
+    public BigDecimal getTaxAmount() {
+        return taxAmount;
+    }
+    
+    public void setTaxAmount(BigDecimal taxAmount) {
+        this.taxAmount = taxAmount;
+    }
+    
+    public BigDecimal getDiscountAmount() {
+        return discountAmount;
+    }
+    
+    public void setDiscountAmount(BigDecimal discountAmount) {
+        this.discountAmount = discountAmount;
+    }
+    
+    public BigDecimal getFinalTotal() {
+        return finalTotal;
+    }
+    
+    public void setFinalTotal(BigDecimal finalTotal) {
+        this.finalTotal = finalTotal;
+    }
+    
+    public String getCouponCode() {
+        return couponCode;
+    }
+    
+    public void setCouponCode(String couponCode) {
+        this.couponCode = couponCode;
+    }
+    
+    public LocalDateTime getTransactionDate() {
+        return transactionDate;
+    }
+    
+    public void setTransactionDate(LocalDateTime transactionDate) {
+        this.transactionDate = transactionDate;
+    }
+    
+    public List<Line> getLines() {
+        return lines;
+    }
+    
+    public void setLines(List<Line> lines) {
+        this.lines = lines;
+    }
+    
+    public static class Line {
+        private Integer itemId;
+        private String name;
+        private int quantity;
+        private BigDecimal unitPrice;
+        private BigDecimal subtotal;
+        
+        public Line() {}
+        
+        public Line(Integer itemId, String name, int quantity, BigDecimal unitPrice, BigDecimal subtotal) {
+            this.itemId = itemId;
+            this.name = name;
+            this.quantity = quantity;
+            this.unitPrice = unitPrice;
+            this.subtotal = subtotal;
+        }
+        
+        public Integer getItemId() {
+            return itemId;
+        }
+        
+        public void setItemId(Integer itemId) {
+            this.itemId = itemId;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+        public int getQuantity() {
+            return quantity;
+        }
+        
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+        
+        public BigDecimal getUnitPrice() {
+            return unitPrice;
+        }
+        
+        public void setUnitPrice(BigDecimal unitPrice) {
+            this.unitPrice = unitPrice;
+        }
+        
+        public BigDecimal getSubtotal() {
+            return subtotal;
+        }
+        
+        public void setSubtotal(BigDecimal subtotal) {
+            this.subtotal = subtotal;
+        }
+    }
+}
@@ -1,18 +1,26 @@
 package com.sgtech.pos.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
 @Table(name = "coupons")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "coupons")
+@NaturalIdCache(region = "coupons-by-natural-id")
 public class Coupon {
     
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
     
+    @NaturalId(mutable = true)
     @Column(unique = true, nullable = false, length = 50)
     private String code;
     
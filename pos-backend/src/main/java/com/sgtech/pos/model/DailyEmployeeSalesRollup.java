@@ -0,0 +1,107 @@
+package com.sgtech.pos.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Transactions and takings per employee and day
+ */
+@Entity
+@Table(name = "daily_employee_sales_rollup")
+@IdClass(DailyEmployeeSalesRollup.Key.class)
+public class DailyEmployeeSalesRollup {
+    
+    @Id
+    @Column(name = "sale_date")
+    private LocalDate saleDate;
+    
+    @Id
+    @Column(name = "employee_id")
+    private UUID employeeId;
+    
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount = 0L;
+    
+    @Column(name = "final_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal finalAmount = BigDecimal.ZERO;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public DailyEmployeeSalesRollup() {}
+    
+    // Getters and Setters
+    public LocalDate getSaleDate() {
+        return saleDate;
+    }
+    
+    public void setSaleDate(LocalDate saleDate) {
+        this.saleDate = saleDate;
+    }
+    
+    public UUID getEmployeeId() {
+        return employeeId;
+    }
+    
+    public void setEmployeeId(UUID employeeId) {
+        this.employeeId = employeeId;
+    }
+    
+    public Long getTransactionCount() {
+        return transactionCount;
+    }
+    
+    public void setTransactionCount(Long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+    
+    public BigDecimal getFinalAmount() {
+        return finalAmount;
+    }
+    
+    public void setFinalAmount(BigDecimal finalAmount) {
+        this.finalAmount = finalAmount;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public static class Key implements Serializable {
+        private LocalDate saleDate;
+        private UUID employeeId;
+        
+        public Key() {}
+        
+        public Key(LocalDate saleDate, UUID employeeId) {
+            this.saleDate = saleDate;
+            this.employeeId = employeeId;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return Objects.equals(saleDate, key.saleDate) && Objects.equals(employeeId, key.employeeId);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(saleDate, employeeId);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.sgtech.pos.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Units sold and line revenue per item and day
+ */
+@Entity
+@Table(name = "daily_item_sales_rollup")
+@IdClass(DailyItemSalesRollup.Key.class)
+public class DailyItemSalesRollup {
+    
+    @Id
+    @Column(name = "sale_date")
+    private LocalDate saleDate;
+    
+    @Id
+    @Column(name = "item_id")
+    private UUID itemId;
+    
+    @Column(name = "quantity_sold", nullable = false)
+    private Long quantitySold = 0L;
+    
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public DailyItemSalesRollup() {}
+    
+    // Getters and Setters
+    public LocalDate getSaleDate() {
+        return saleDate;
+    }
+    
+    public void setSaleDate(LocalDate saleDate) {
+        this.saleDate = saleDate;
+    }
+    
+    public UUID getItemId() {
+        return itemId;
+    }
+    
+    public void setItemId(UUID itemId) {
+        this.itemId = itemId;
+    }
+    
+    public Long getQuantitySold() {
+        return quantitySold;
+    }
+    
+    public void setQuantitySold(Long quantitySold) {
+        this.quantitySold = quantitySold;
+    }
+    
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+    
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public static class Key implements Serializable {
+        private LocalDate saleDate;
+        private UUID itemId;
+        
+        public Key() {}
+        
+        public Key(LocalDate saleDate, UUID itemId) {
+            this.saleDate = saleDate;
+            this.itemId = itemId;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return Objects.equals(saleDate, key.saleDate) && Objects.equals(itemId, key.itemId);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(saleDate, itemId);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.sgtech.pos.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Sales and refund totals per day. Every day is spread over several slot
+ * rows so concurrent checkouts rarely update the same row; readers add
+ * the slots of a day together.
+ */
+@Entity
+@Table(name = "daily_sales_rollup")
+@IdClass(DailySalesRollup.Key.class)
+public class DailySalesRollup {
+    
+    @Id
+    @Column(name = "sale_date")
+    private LocalDate saleDate;
+    
+    @Id
+    @Column(name = "slot")
+    private Integer slot;
+    
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount = 0L;
+    
+    @Column(name = "subtotal_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal subtotalAmount = BigDecimal.ZERO;
+    
+    @Column(name = "tax_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal taxAmount = BigDecimal.ZERO;
+    
+    @Column(name = "discount_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal discountAmount = BigDecimal.ZERO;
+    
+    @Column(name = "final_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal finalAmount = BigDecimal.ZERO;
+    
+    @Column(name = "return_count", nullable = false)
+    private Long returnCount = 0L;
+    
+    @Column(name = "refund_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal refundAmount = BigDecimal.ZERO;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public DailySalesRollup() {}
+    
+    // Getters and Setters
+    public LocalDate getSaleDate() {
+        return saleDate;
+    }
+    
+    public void setSaleDate(LocalDate saleDate) {
+        this.saleDate = saleDate;
+    }
+    
+    public Integer getSlot() {
+        return slot;
+    }
+    
+    public void setSlot(Integer slot) {
+        this.slot = slot;
+    }
+    
+    public Long getTransactionCount() {
+        return transactionCount;
+    }
+    
+    public void setTransactionCount(Long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+    
+    public BigDecimal getSubtotalAmount() {
+        return subtotalAmount;
+    }
+    
+    public void setSubtotalAmount(BigDecimal subtotalAmount) {
+        this.subtotalAmount = subtotalAmount;
+    }
+    
+    public BigDecimal getTaxAmount() {
+        return taxAmount;
+    }
+    
+    public void setTaxAmount(BigDecimal taxAmount) {
+        this.taxAmount = taxAmount;
+    }
+    
+    public BigDecimal getDiscountAmount() {
+        return discountAmount;
+    }
+    
+    public void setDiscountAmount(BigDecimal discountAmount) {
+        this.discountAmount = discountAmount;
+    }
+    
+    public BigDecimal getFinalAmount() {
+        return finalAmount;
+    }
+    
+    public void setFinalAmount(BigDecimal finalAmount) {
+        this.finalAmount = finalAmount;
+    }
+    
+    public Long getReturnCount() {
+        return returnCount;
+    }
+    
+    public void setReturnCount(Long returnCount) {
+        this.returnCount = returnCount;
+    }
+    
+    public BigDecimal getRefundAmount() {
+        return refundAmount;
+    }
+    
+    public void setRefundAmount(BigDecimal refundAmount) {
+        this.refundAmount = refundAmount;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public static class Key implements Serializable {
+        private LocalDate saleDate;
+        private Integer slot;
+        
+        public Key() {}
+        
+        public Key(LocalDate saleDate, Integer slot) {
+            this.saleDate = saleDate;
+            this.slot = slot;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return Objects.equals(saleDate, key.saleDate) && Objects.equals(slot, key.slot);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(saleDate, slot);
+        }
+    }
+}
@@ -1,17 +1,25 @@
 package com.sgtech.pos.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
 @Table(name = "employees")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "employees")
+@NaturalIdCache(region = "employees-by-natural-id")
 public class Employee {
     
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
     
+    @NaturalId
     @Column(unique = true, nullable = false, length = 50)
     private String username;
     
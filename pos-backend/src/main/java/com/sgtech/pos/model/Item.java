@@ -1,18 +1,26 @@
 package com.sgtech.pos.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
 @Table(name = "items")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "items")
+@NaturalIdCache(region = "items-by-natural-id")
 public class Item {
     
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
     
+    @NaturalId
     @Column(name = "item_id", unique = true, nullable = false)
     private Integer itemId;
     
@@ -25,6 +33,14 @@ public class Item {
     @Column(nullable = false)
     private Integer quantity;
     
+    // Null means the configured default threshold applies
+    @Column(name = "reorder_threshold")
+    private Integer reorderThreshold;
+    
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
@@ -93,6 +109,22 @@ public class Item {
         this.quantity = quantity;
     }
     
+    public Integer getReorderThreshold() {
+        return reorderThreshold;
+    }
+    
+    public void setReorderThreshold(Integer reorderThreshold) {
+        this.reorderThreshold = reorderThreshold;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,141 @@
+package com.sgtech.pos.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+    
+    public static final String PENDING = "PENDING";
+    public static final String DISPATCHED = "DISPATCHED";
+    public static final String FAILED = "FAILED";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @Column(name = "event_type", nullable = false, length = 50)
+    private String eventType;
+    
+    @Column(name = "aggregate_type", nullable = false, length = 50)
+    private String aggregateType;
+    
+    @Column(name = "aggregate_id", nullable = false)
+    private UUID aggregateId;
+    
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+    
+    @Column(nullable = false, length = 20)
+    private String status = PENDING;
+    
+    @Column(nullable = false)
+    private Integer attempts = 0;
+    
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "dispatched_at")
+    private LocalDateTime dispatchedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    // Constructors
+    public OutboxEvent() {}
+    
+    public OutboxEvent(String eventType, String aggregateType, UUID aggregateId, String payload) {
+        this.eventType = eventType;
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.payload = payload;
+    }
+    
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+    
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    
+    public String getEventType() {
+        return eventType;
+    }
+    
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+    
+    public String getAggregateType() {
+        return aggregateType;
+    }
+    
+    public void setAggregateType(String aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+    
+    public UUID getAggregateId() {
+        return aggregateId;
+    }
+    
+    public void setAggregateId(UUID aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+    
+    public String getPayload() {
+        return payload;
+    }
+    
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public Integer getAttempts() {
+        return attempts;
+    }
+    
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getDispatchedAt() {
+        return dispatchedAt;
+    }
+    
+    public void setDispatchedAt(LocalDateTime dispatchedAt) {
+        this.dispatchedAt = dispatchedAt;
+    }
+}
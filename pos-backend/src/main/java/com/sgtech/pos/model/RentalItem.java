@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @Entity
@@ -28,6 +30,10 @@ public class RentalItem {
     @Column(name = "unit_price", nullable = false, precision = 10, scale = 2)
     private BigDecimal unitPrice;
     
+    // Units back so far; a line is returned once all of its units are
+    @Column(name = "returned_quantity", nullable = false)
+    private Integer returnedQuantity = 0;
+    
     @Column(nullable = false)
     private Boolean returned = false;
     
@@ -40,6 +46,10 @@ public class RentalItem {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
+    // One entry per return that brought units of this line back
+    @OneToMany(mappedBy = "rentalItem")
+    private List<ReturnItem> returnEvents = new ArrayList<>();
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -96,6 +106,18 @@ public class RentalItem {
         this.unitPrice = unitPrice;
     }
     
+    public Integer getReturnedQuantity() {
+        return returnedQuantity;
+    }
+    
+    public void setReturnedQuantity(Integer returnedQuantity) {
+        this.returnedQuantity = returnedQuantity;
+    }
+    
+    public int getOutstandingQuantity() {
+        return quantity - (returnedQuantity == null ? 0 : returnedQuantity);
+    }
+    
     public Boolean getReturned() {
         return returned;
     }
@@ -127,5 +149,12 @@ public class RentalItem {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+    
+    public List<ReturnItem> getReturnEvents() {
+        return returnEvents;
+    }
+    
+    public void setReturnEvents(List<ReturnItem> returnEvents) {
+        this.returnEvents = returnEvents;
+    }
 }
-
@@ -3,6 +3,7 @@ package com.sgtech.pos.model;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.UUID;
 
@@ -44,8 +45,10 @@ public class Sale {
     
     @PrePersist
     protected void onCreate() {
-        transactionDate = LocalDateTime.now();
-        createdAt = LocalDateTime.now();
+        // Stored at the column's microsecond precision so the in-memory
+        // value matches the row when it is used as a paging cursor
+        transactionDate = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        createdAt = transactionDate;
     }
     
     // Constructors
@@ -2,14 +2,18 @@ package com.sgtech.pos.repository;
 
 import com.sgtech.pos.model.Coupon;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface CouponRepository extends JpaRepository<Coupon, UUID> {
-    Optional<Coupon> findByCode(String code);
+public interface CouponRepository extends JpaRepository<Coupon, UUID>, CouponRepositoryCustom {
     Optional<Coupon> findByCodeAndActiveTrue(String code);
+    
+    @Query("SELECT c.code FROM Coupon c WHERE c.active = true")
+    List<String> findActiveCodes();
 }
 
@@ -0,0 +1,13 @@
+package com.sgtech.pos.repository;
+
+import com.sgtech.pos.model.Coupon;
+
+import java.util.Optional;
+
+/**
+ * Code lookups served from the natural-id cache
+ */
+public interface CouponRepositoryCustom {
+    
+    Optional<Coupon> findByCode(String code);
+}
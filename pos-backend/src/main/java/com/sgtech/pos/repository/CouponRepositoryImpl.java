@@ -0,0 +1,21 @@
+package com.sgtech.pos.repository;
+
+import com.sgtech.pos.model.Coupon;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public class CouponRepositoryImpl implements CouponRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Coupon> findByCode(String code) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Coupon.class).loadOptional(code);
+    }
+}
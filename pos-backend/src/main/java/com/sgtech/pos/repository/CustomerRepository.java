@@ -8,7 +8,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, UUID> {
+public interface CustomerRepository extends JpaRepository<Customer, UUID>, CustomerRepositoryCustom {
     Optional<Customer> findByPhone(String phone);
     boolean existsByPhone(String phone);
 }
@@ -0,0 +1,13 @@
+package com.sgtech.pos.repository;
+
+import java.util.UUID;
+
+public interface CustomerRepositoryCustom {
+    
+    /**
+     * Returns the id of the customer with this phone, creating the customer
+     * if there is none. Safe against concurrent first-time callers; must
+     * run inside the caller's transaction.
+     */
+    UUID upsertByPhone(String phone);
+}
@@ -0,0 +1,77 @@
+package com.sgtech.pos.repository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public class CustomerRepositoryImpl implements CustomerRepositoryCustom {
+    
+    // RETURNING yields nothing on a conflict; DO NOTHING is used over a
+    // no-op DO UPDATE, which would write a new row version and lock the
+    // customer on every miss, and the existing id is selected instead
+    private static final String UPSERT_SQL =
+        "INSERT INTO customers (id, phone, created_at, updated_at) VALUES (?, ?, ?, ?) " +
+        "ON CONFLICT (phone) DO NOTHING RETURNING id";
+    
+    private static final String INSERT_SQL =
+        "INSERT INTO customers (id, phone, created_at, updated_at) VALUES (?, ?, ?, ?)";
+    
+    private static final String SELECT_ID_SQL = "SELECT id FROM customers WHERE phone = ?";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private boolean postgres;
+    
+    @PostConstruct
+    public void detectDatabase() {
+        String product = jdbcTemplate.execute(
+            (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        postgres = "PostgreSQL".equalsIgnoreCase(product);
+    }
+    
+    @Override
+    public UUID upsertByPhone(String phone) {
+        // Customers saved through JPA in this transaction must be visible to the SQL
+        entityManager.flush();
+        
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (postgres) {
+            // A conflicting insert has committed by the time DO NOTHING
+            // applies, so the next statement sees its row
+            List<UUID> inserted = jdbcTemplate.queryForList(UPSERT_SQL, UUID.class, UUID.randomUUID(), phone, now, now);
+            return inserted.isEmpty() ? findIdByPhone(phone) : inserted.get(0);
+        }
+        
+        // Without ON CONFLICT: look up, insert if missing, and look up again
+        // if a concurrent insert won the unique constraint
+        UUID existing = findIdByPhone(phone);
+        if (existing != null) {
+            return existing;
+        }
+        UUID id = UUID.randomUUID();
+        try {
+            jdbcTemplate.update(INSERT_SQL, id, phone, now, now);
+            return id;
+        } catch (DuplicateKeyException e) {
+            return findIdByPhone(phone);
+        }
+    }
+    
+    private UUID findIdByPhone(String phone) {
+        List<UUID> ids = jdbcTemplate.queryForList(SELECT_ID_SQL, UUID.class, phone);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+}
@@ -0,0 +1,13 @@
+package com.sgtech.pos.repository;
+
+import com.sgtech.pos.model.Employee;
+
+import java.util.Optional;
+
+/**
+ * Username lookups served from the natural-id cache
+ */
+public interface EmployeeRepositoryCustom {
+    
+    Optional<Employee> findByUsername(String username);
+}
@@ -0,0 +1,21 @@
+package com.sgtech.pos.repository;
+
+import com.sgtech.pos.model.Employee;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public class EmployeeRepositoryImpl implements EmployeeRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Employee> findByUsername(String username) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Employee.class).loadOptional(username);
+    }
+}
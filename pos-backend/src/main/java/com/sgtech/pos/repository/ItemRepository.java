@@ -4,15 +4,11 @@ import com.sgtech.pos.model.Item;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
 import java.util.UUID;
 import java.util.List;
 
 @Repository
-public interface ItemRepository extends JpaRepository<Item, UUID> {
-    Optional<Item> findByItemId(Integer itemId);
+public interface ItemRepository extends JpaRepository<Item, UUID>, ItemRepositoryCustom {
     List<Item> findByQuantityGreaterThan(int minQuantity);
-    List<Item> findByQuantityLessThanEqual(int maxQuantity);
     List<Item> findByNameContainingIgnoreCase(String name);
 }
-
@@ -0,0 +1,53 @@
+package com.sgtech.pos.repository;
+
+import com.sgtech.pos.model.Item;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Natural-id lookups served from the second-level cache, and set-based
+ * stock updates that bypass per-entity dirty checking
+ */
+public interface ItemRepositoryCustom {
+    
+    /**
+     * Loads an item by its item number through the natural-id cache
+     */
+    Optional<Item> findByItemId(Integer itemId);
+    
+    /**
+     * Loads several items by item number, resolving them from the
+     * natural-id and entity caches first and querying only for the rest,
+     * with at most one query by id and one by item number. Unknown item
+     * numbers are left out and the order is unspecified.
+     */
+    List<Item> findByItemIdIn(Collection<Integer> itemIds);
+    
+    /**
+     * Decrements the stock of every given item in a single JDBC batch.
+     * Each row is only updated while it still holds enough stock, so two
+     * registers selling the same item can never drive it negative; if any
+     * row is short the whole call fails and the caller's transaction is
+     * expected to roll back. The passed entities are detached and given the
+     * quantity and version read back from the updated rows, which include
+     * any concurrent change, without triggering a second UPDATE. Their
+     * cached copies are evicted.
+     */
+    void decrementStock(Map<Item, Integer> quantities);
+    
+    /**
+     * Adds stock back to every given item in a single JDBC batch, detaching
+     * and updating the passed entities the same way as {@link #decrementStock}.
+     */
+    void incrementStock(Map<Item, Integer> quantities);
+    
+    /**
+     * Applies net quantity changes keyed by item id in a single JDBC batch.
+     * Used to write back deltas that were accumulated outside of JPA.
+     */
+    void applyStockDeltas(Map<UUID, Integer> deltas);
+}
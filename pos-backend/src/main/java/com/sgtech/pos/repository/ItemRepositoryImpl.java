@@ -0,0 +1,173 @@
+package com.sgtech.pos.repository;
+
+import com.sgtech.pos.model.Item;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+public class ItemRepositoryImpl implements ItemRepositoryCustom {
+    
+    private static final String DECREMENT_SQL =
+        "UPDATE items SET quantity = quantity - ?, version = version + 1, updated_at = ? " +
+        "WHERE id = ? AND quantity >= ?";
+    
+    private static final String INCREMENT_SQL =
+        "UPDATE items SET quantity = quantity + ?, version = version + 1, updated_at = ? WHERE id = ?";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    // Lookups join the caller's transaction and leave the choice of a
+    // read-only one, and with it the replica, to the service. Without a
+    // transaction the session is only kept open for the call.
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<Item> findByItemId(Integer itemId) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Item.class).loadOptional(itemId);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Item> findByItemIdIn(Collection<Integer> itemIds) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        // Item numbers the natural-id cache resolves are read from the
+        // entity cache; only the rest are queried for, in one statement
+        List<Item> items = new ArrayList<>(itemIds.size());
+        List<Item> loaded = entityManager.unwrap(Session.class).byMultipleNaturalId(Item.class)
+            .enableOrderedReturn(false)
+            .multiLoad(new ArrayList<>(itemIds));
+        for (Item item : loaded) {
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+    
+    @Override
+    public void decrementStock(Map<Item, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        
+        // Make sure pending entity changes reach the database before the raw SQL
+        entityManager.flush();
+        
+        List<Item> items = new ArrayList<>(quantities.keySet());
+        List<Object[]> batchArgs = new ArrayList<>(items.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (Item item : items) {
+            Integer quantity = quantities.get(item);
+            batchArgs.add(new Object[] { quantity, now, item.getId(), quantity });
+        }
+        
+        int[] updated = jdbcTemplate.batchUpdate(DECREMENT_SQL, batchArgs);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                throw new RuntimeException("Insufficient inventory for item: " + items.get(i).getName());
+            }
+        }
+        
+        detachWithStoredStock(quantities.keySet());
+    }
+    
+    @Override
+    public void incrementStock(Map<Item, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        
+        entityManager.flush();
+        
+        List<Object[]> batchArgs = new ArrayList<>(quantities.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (Map.Entry<Item, Integer> entry : quantities.entrySet()) {
+            batchArgs.add(new Object[] { entry.getValue(), now, entry.getKey().getId() });
+        }
+        jdbcTemplate.batchUpdate(INCREMENT_SQL, batchArgs);
+        
+        detachWithStoredStock(quantities.keySet());
+    }
+    
+    @Override
+    public void applyStockDeltas(Map<UUID, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        
+        List<Object[]> batchArgs = new ArrayList<>(deltas.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (Map.Entry<UUID, Integer> entry : deltas.entrySet()) {
+            batchArgs.add(new Object[] { entry.getValue(), now, entry.getKey() });
+        }
+        jdbcTemplate.batchUpdate(INCREMENT_SQL, batchArgs);
+        evictCached(deltas.keySet());
+    }
+    
+    // Keep the in-memory copies in step with the database without
+    // letting Hibernate flush them again. The rows are read back rather
+    // than adjusted in memory: a concurrent checkout may have changed them
+    // after these entities were loaded, and the row locks taken by the
+    // update keep the values read here current until commit.
+    private void detachWithStoredStock(Collection<Item> items) {
+        Map<UUID, Item> byId = new HashMap<>();
+        for (Item item : items) {
+            entityManager.detach(item);
+            byId.put(item.getId(), item);
+        }
+        
+        String placeholders = String.join(", ", Collections.nCopies(byId.size(), "?"));
+        jdbcTemplate.query("SELECT id, quantity, version FROM items WHERE id IN (" + placeholders + ")",
+            rs -> {
+                Item item = byId.get(rs.getObject("id", UUID.class));
+                item.setQuantity(rs.getInt("quantity"));
+                item.setVersion(rs.getLong("version"));
+            },
+            byId.keySet().toArray());
+        evictCached(byId.keySet());
+    }
+    
+    // Hibernate cannot see these updates, so cached copies are dropped now
+    // and again once the transaction ends, in case another session cached
+    // the old row in between
+    private void evictCached(Collection<UUID> ids) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        List<UUID> evicted = new ArrayList<>(ids);
+        for (UUID id : evicted) {
+            cache.evict(Item.class, id);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    for (UUID id : evicted) {
+                        cache.evict(Item.class, id);
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.sgtech.pos.repository;
+
+import com.sgtech.pos.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+    List<OutboxEvent> findByStatusOrderByCreatedAtAsc(String status, Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = :status, e.dispatchedAt = :dispatchedAt WHERE e.id IN :ids")
+    int markDispatched(@Param("ids") Collection<UUID> ids,
+                       @Param("status") String status,
+                       @Param("dispatchedAt") LocalDateTime dispatchedAt);
+    
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = :status AND e.dispatchedAt < :before")
+    int deleteDispatchedBefore(@Param("status") String status, @Param("before") LocalDateTime before);
+}
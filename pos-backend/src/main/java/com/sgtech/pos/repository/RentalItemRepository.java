@@ -1,12 +1,56 @@
 package com.sgtech.pos.repository;
 
 import com.sgtech.pos.model.RentalItem;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface RentalItemRepository extends JpaRepository<RentalItem, UUID> {
+    String OVERDUE_COUNT =
+        "SELECT count(ri) FROM RentalItem ri JOIN ri.rental r WHERE ri.returned = false AND r.dueDate < :today";
+    
+    // Lines named in a return, loaded together with what processing them
+    // touches so a large return does not load them one by one
+    @EntityGraph(attributePaths = {"item", "rental", "rental.customer", "rental.employee"})
+    List<RentalItem> findByIdIn(Collection<UUID> ids);
+    
+    // Unreturned lines of a customer's rentals with their rental and item
+    // in one query; the rental's own to-one associations are joined too
+    // since they would otherwise be loaded per rental
+    @Query("SELECT ri FROM RentalItem ri JOIN FETCH ri.rental r JOIN FETCH r.customer c JOIN FETCH r.employee "
+         + "JOIN FETCH ri.item WHERE c.phone = :phone AND ri.returned = false ORDER BY r.dueDate, ri.createdAt")
+    List<RentalItem> findOutstandingByCustomerPhone(@Param("phone") String phone);
+    
+    // Store-wide overdue lines, most days late first. Both orderings start
+    // from the open lines only (idx_rental_items_open) joined to the
+    // rentals' due dates (idx_rentals_due_date).
+    @Query(value = "SELECT ri FROM RentalItem ri JOIN FETCH ri.rental r JOIN FETCH r.customer JOIN FETCH r.employee "
+         + "JOIN FETCH ri.item WHERE ri.returned = false AND r.dueDate < :today ORDER BY r.dueDate, ri.id",
+           countQuery = OVERDUE_COUNT)
+    Page<RentalItem> findOverdueByDaysLate(@Param("today") LocalDate today, Pageable pageable);
+    
+    // Highest estimated late fee first; the fee is the price of the units
+    // still out times the days late at one store-wide rate, so the rate does not change the order
+    @Query(value = "SELECT ri FROM RentalItem ri JOIN FETCH ri.rental r JOIN FETCH r.customer JOIN FETCH r.employee "
+         + "JOIN FETCH ri.item WHERE ri.returned = false AND r.dueDate < :today "
+         + "ORDER BY ri.unitPrice * (ri.quantity - ri.returnedQuantity) * ((:today - r.dueDate) by day) DESC, r.dueDate, ri.id",
+           countQuery = OVERDUE_COUNT)
+    Page<RentalItem> findOverdueByFee(@Param("today") LocalDate today, Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE RentalItem ri SET ri.daysOverdue = "
+         + "(SELECT cast((:today - r.dueDate) by day as Integer) FROM Rental r WHERE r = ri.rental) "
+         + "WHERE ri.returned = false AND ri.rental IN (SELECT r FROM Rental r WHERE r.dueDate < :today)")
+    int updateDaysOverdue(@Param("today") LocalDate today);
 }
-
@@ -1,6 +1,7 @@
 package com.sgtech.pos.repository;
 
 import com.sgtech.pos.model.Rental;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -9,6 +10,9 @@ import java.util.UUID;
 
 @Repository
 public interface RentalRepository extends JpaRepository<Rental, UUID> {
+    // Lines are fetched with the parents so mapping a list does not
+    // issue one query per row
+    @EntityGraph(attributePaths = {"customer", "employee", "rentalItems", "rentalItems.item"})
     List<Rental> findByCustomerId(UUID customerId);
 }
 
@@ -1,14 +1,27 @@
 package com.sgtech.pos.repository;
 
 import com.sgtech.pos.model.Sale;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface SaleRepository extends JpaRepository<Sale, UUID> {
+public interface SaleRepository extends JpaRepository<Sale, UUID>, SaleRepositoryCustom {
+    // Lines are fetched with the parents so mapping a list does not
+    // issue one query per row
+    @EntityGraph(attributePaths = {"employee", "saleItems", "saleItems.item"})
     List<Sale> findByEmployeeId(UUID employeeId);
+    
+    // A batch of sales with employee, lines and items in one query, for
+    // the export; the order is unspecified
+    @Query("SELECT DISTINCT s FROM Sale s JOIN FETCH s.employee LEFT JOIN FETCH s.saleItems si "
+         + "LEFT JOIN FETCH si.item WHERE s.id IN :ids")
+    List<Sale> findWithLinesByIdIn(@Param("ids") Collection<UUID> ids);
 }
 
@@ -0,0 +1,32 @@
+package com.sgtech.pos.repository;
+
+import com.sgtech.pos.model.Sale;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Sales history queries ordered newest first by (transaction_date, id).
+ * Every filter argument is optional and skipped when null.
+ */
+public interface SaleRepositoryCustom {
+    
+    /**
+     * Returns up to limit sales that come strictly after the given
+     * position in the ordering. Passing a null position starts at the
+     * newest sale. The position is compared in SQL, so the cost of a page
+     * does not grow with how deep into the history it is.
+     */
+    List<Sale> findPage(UUID employeeId, LocalDateTime from, LocalDateTime to,
+                        LocalDateTime afterDate, UUID afterId, int limit);
+    
+    /**
+     * Streams the ids of every matching sale. The stream holds a database
+     * cursor and must be consumed and closed inside the caller's
+     * transaction; the sales themselves are loaded in batches with
+     * {@link SaleRepository#findWithLinesByIdIn}.
+     */
+    Stream<UUID> streamSaleIds(UUID employeeId, LocalDateTime from, LocalDateTime to);
+}
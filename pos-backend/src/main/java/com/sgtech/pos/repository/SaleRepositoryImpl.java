@@ -0,0 +1,81 @@
+package com.sgtech.pos.repository;
+
+import com.sgtech.pos.model.Sale;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.AvailableHints;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public class SaleRepositoryImpl implements SaleRepositoryCustom {
+    
+    private static final int STREAM_FETCH_SIZE = 500;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<Sale> findPage(UUID employeeId, LocalDateTime from, LocalDateTime to,
+                               LocalDateTime afterDate, UUID afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Sale> query = cb.createQuery(Sale.class);
+        Root<Sale> sale = query.from(Sale.class);
+        
+        List<Predicate> predicates = filters(cb, sale, employeeId, from, to);
+        if (afterDate != null && afterId != null) {
+            Path<LocalDateTime> date = sale.get("transactionDate");
+            Path<UUID> id = sale.get("id");
+            predicates.add(cb.or(
+                cb.lessThan(date, afterDate),
+                cb.and(cb.equal(date, afterDate), cb.lessThan(id, afterId))));
+        }
+        
+        query.select(sale)
+            .where(predicates.toArray(new Predicate[0]))
+            .orderBy(cb.desc(sale.get("transactionDate")), cb.desc(sale.get("id")));
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+    
+    @Override
+    public Stream<UUID> streamSaleIds(UUID employeeId, LocalDateTime from, LocalDateTime to) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UUID> query = cb.createQuery(UUID.class);
+        Root<Sale> sale = query.from(Sale.class);
+        
+        // Only ids go through the cursor; fetching the lines here would make
+        // the cursor assemble sales from joined rows, which a collection
+        // fetch cannot do reliably while the stream is consumed
+        query.select(sale.get("id"))
+            .where(filters(cb, sale, employeeId, from, to).toArray(new Predicate[0]))
+            .orderBy(cb.desc(sale.get("transactionDate")), cb.desc(sale.get("id")));
+        return entityManager.createQuery(query)
+            .setHint(AvailableHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+            .getResultStream();
+    }
+    
+    private List<Predicate> filters(CriteriaBuilder cb, Root<Sale> sale, UUID employeeId,
+                                    LocalDateTime from, LocalDateTime to) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (employeeId != null) {
+            predicates.add(cb.equal(sale.get("employee").get("id"), employeeId));
+        }
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(sale.get("transactionDate"), from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThan(sale.get("transactionDate"), to));
+        }
+        return predicates;
+    }
+}
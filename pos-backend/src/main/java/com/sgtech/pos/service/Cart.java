@@ -0,0 +1,148 @@
+package com.sgtech.pos.service;
+
+import com.sgtech.pos.model.Item;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Basket held on the server while it is being scanned. Totals are kept up
+ * to date on every change, using the same rounding as checkout, so the
+ * register can show them straight away and checkout does not reprice.
+ * Callers synchronize on the cart.
+ */
+public class Cart {
+    
+    private final UUID id;
+    private final Map<Integer, Line> lines = new LinkedHashMap<>();
+    private long subtotal;
+    private long taxAmount;
+    private long discountAmount;
+    private int discountBasisPoints;
+    private String couponCode;
+    private long expiresAt;
+    
+    Cart(UUID id) {
+        this.id = id;
+    }
+    
+    /**
+     * Replaces the line for an item. Only the difference to the previous
+     * line is applied to the subtotal.
+     */
+    void setLine(Item item, int quantity) {
+        Line line = new Line(item, quantity);
+        Line previous = lines.put(item.getItemId(), line);
+        if (previous != null) {
+            subtotal -= previous.subtotal;
+        }
+        subtotal += line.subtotal;
+        updateTotals();
+    }
+    
+    void removeLine(Integer itemId) {
+        Line previous = lines.remove(itemId);
+        if (previous != null) {
+            subtotal -= previous.subtotal;
+            updateTotals();
+        }
+    }
+    
+    void setCoupon(String code, BigDecimal percent) {
+        couponCode = code;
+        discountBasisPoints = percent == null ? 0 : PricingEngine.toBasisPoints(percent);
+        updateTotals();
+    }
+    
+    private void updateTotals() {
+        taxAmount = PricingEngine.tax(subtotal);
+        discountAmount = PricingEngine.discount(subtotal + taxAmount, discountBasisPoints);
+    }
+    
+    public UUID getId() {
+        return id;
+    }
+    
+    public List<Line> getLines() {
+        return new ArrayList<>(lines.values());
+    }
+    
+    public Line getLine(Integer itemId) {
+        return lines.get(itemId);
+    }
+    
+    public boolean isEmpty() {
+        return lines.isEmpty();
+    }
+    
+    public BigDecimal getSubtotal() {
+        return PricingEngine.toAmount(subtotal);
+    }
+    
+    public BigDecimal getTaxAmount() {
+        return PricingEngine.toAmount(taxAmount);
+    }
+    
+    public BigDecimal getDiscountAmount() {
+        return PricingEngine.toAmount(discountAmount);
+    }
+    
+    public BigDecimal getTotal() {
+        return PricingEngine.toAmount(subtotal + taxAmount - discountAmount);
+    }
+    
+    public String getCouponCode() {
+        return couponCode;
+    }
+    
+    boolean isExpired() {
+        return System.currentTimeMillis() > expiresAt;
+    }
+    
+    void touch(long ttlMillis) {
+        expiresAt = System.currentTimeMillis() + ttlMillis;
+    }
+    
+    /**
+     * One scanned item, priced when it was scanned
+     */
+    public static final class Line {
+        private final Integer itemId;
+        private final String name;
+        private final int quantity;
+        private final BigDecimal unitPrice;
+        private final long subtotal;
+        
+        Line(Item item, int quantity) {
+            this.itemId = item.getItemId();
+            this.name = item.getName();
+            this.quantity = quantity;
+            this.unitPrice = item.getPrice();
+            this.subtotal = PricingEngine.lineTotal(PricingEngine.toCents(item.getPrice()), quantity);
+        }
+        
+        public Integer getItemId() {
+            return itemId;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public int getQuantity() {
+            return quantity;
+        }
+        
+        public BigDecimal getUnitPrice() {
+            return unitPrice;
+        }
+        
+        public BigDecimal getSubtotal() {
+            return PricingEngine.toAmount(subtotal);
+        }
+    }
+}
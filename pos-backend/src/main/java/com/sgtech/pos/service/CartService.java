@@ -0,0 +1,170 @@
+package com.sgtech.pos.service;
+
+import com.sgtech.pos.model.Coupon;
+import com.sgtech.pos.model.Item;
+import com.sgtech.pos.model.Sale;
+import com.sgtech.pos.repository.ItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Open carts, kept in memory while the cashier scans. The store is bounded
+ * and carts that have not been touched for the time to live are dropped.
+ */
+@Service
+public class CartService {
+    
+    @Value("${pos.carts.max-entries:5000}")
+    private int maxEntries;
+    
+    @Value("${pos.carts.ttl:PT2H}")
+    private Duration ttl;
+    
+    @Autowired
+    private ItemRepository itemRepository;
+    
+    @Autowired
+    private CouponCache couponCache;
+    
+    @Autowired
+    private StockEngine stockEngine;
+    
+    @Autowired
+    private SaleService saleService;
+    
+    private final Map<UUID, Cart> carts = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, Cart> eldest) {
+            return size() > maxEntries;
+        }
+    };
+    
+    public Cart createCart() {
+        Cart cart = new Cart(UUID.randomUUID());
+        cart.touch(ttl.toMillis());
+        synchronized (carts) {
+            carts.put(cart.getId(), cart);
+        }
+        return cart;
+    }
+    
+    public Optional<Cart> getCart(UUID cartId) {
+        synchronized (carts) {
+            Cart cart = carts.get(cartId);
+            if (cart == null || cart.isExpired()) {
+                carts.remove(cartId);
+                return Optional.empty();
+            }
+            cart.touch(ttl.toMillis());
+            return Optional.of(cart);
+        }
+    }
+    
+    /**
+     * Adds a scanned quantity to the cart, merging it with an existing line
+     * for the same item
+     */
+    public Cart addLine(UUID cartId, Integer itemId, int quantity) {
+        Cart cart = requireCart(cartId);
+        synchronized (cart) {
+            Cart.Line existing = cart.getLine(itemId);
+            return setLine(cart, itemId, quantity + (existing == null ? 0 : existing.getQuantity()));
+        }
+    }
+    
+    public Cart updateLine(UUID cartId, Integer itemId, int quantity) {
+        Cart cart = requireCart(cartId);
+        synchronized (cart) {
+            return setLine(cart, itemId, quantity);
+        }
+    }
+    
+    public Cart removeLine(UUID cartId, Integer itemId) {
+        Cart cart = requireCart(cartId);
+        synchronized (cart) {
+            cart.removeLine(itemId);
+            return cart;
+        }
+    }
+    
+    public Cart applyCoupon(UUID cartId, String code) {
+        Cart cart = requireCart(cartId);
+        Coupon coupon = couponCache.findValid(code)
+            .orElseThrow(() -> new RuntimeException("Invalid coupon code"));
+        synchronized (cart) {
+            cart.setCoupon(coupon.getCode(), coupon.getDiscountPercent());
+            return cart;
+        }
+    }
+    
+    public Cart removeCoupon(UUID cartId) {
+        Cart cart = requireCart(cartId);
+        synchronized (cart) {
+            cart.setCoupon(null, null);
+            return cart;
+        }
+    }
+    
+    /**
+     * Commits the cart as a sale at the prices and totals already shown to
+     * the customer, then closes it
+     */
+    public Sale checkout(UUID cartId, UUID employeeId) {
+        Cart cart = requireCart(cartId);
+        synchronized (cart) {
+            if (cart.isEmpty()) {
+                throw new RuntimeException("Cart is empty");
+            }
+            Sale sale = saleService.processCart(employeeId, cart);
+            synchronized (carts) {
+                carts.remove(cartId, cart);
+            }
+            return sale;
+        }
+    }
+    
+    public void discard(UUID cartId) {
+        synchronized (carts) {
+            carts.remove(cartId);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${pos.carts.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        synchronized (carts) {
+            Iterator<Cart> it = carts.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().isExpired()) {
+                    it.remove();
+                }
+            }
+        }
+    }
+    
+    private Cart setLine(Cart cart, Integer itemId, int quantity) {
+        if (quantity <= 0) {
+            cart.removeLine(itemId);
+            return cart;
+        }
+        Item item = itemRepository.findByItemId(itemId)
+            .orElseThrow(() -> new RuntimeException("Item not found: " + itemId));
+        if (stockEngine.available(item) < quantity) {
+            throw new RuntimeException("Insufficient inventory for item: " + item.getName());
+        }
+        cart.setLine(item, quantity);
+        return cart;
+    }
+    
+    private Cart requireCart(UUID cartId) {
+        return getCart(cartId).orElseThrow(() -> new RuntimeException("Cart not found"));
+    }
+}
@@ -0,0 +1,189 @@
+package com.sgtech.pos.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgtech.pos.config.ReplicaLagGuard;
+import com.sgtech.pos.dto.ItemResponse;
+import com.sgtech.pos.model.Item;
+import com.sgtech.pos.repository.ItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The full item catalog as ready-to-send JSON bytes with a strong ETag
+ * derived from the content. The bytes are rebuilt only after items have
+ * changed, at most once per rebuild interval, so repeated catalog loads
+ * neither query nor serialize, and a client whose copy is current gets a
+ * 304 without a body.
+ */
+@Service
+public class CatalogSnapshot {
+    
+    @Value("${pos.catalog.min-rebuild-interval:PT1S}")
+    private Duration minRebuildInterval;
+    
+    // Picks up changes made outside the application, e.g. by hand in SQL
+    @Value("${pos.catalog.max-age:PT5M}")
+    private Duration maxAge;
+    
+    @Autowired
+    private ItemRepository itemRepository;
+    
+    @Autowired
+    private StockEngine stockEngine;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    // Only present when reads can go to a replica
+    @Autowired(required = false)
+    private ReplicaLagGuard replicaLagGuard;
+    
+    private final AtomicLong changes = new AtomicLong();
+    
+    private final Object rebuildLock = new Object();
+    
+    private volatile Snapshot current;
+    
+    // When the last change committed, in System.nanoTime()
+    private volatile long lastChangeAt;
+    
+    /**
+     * Marks the snapshot stale; called after item changes commit
+     */
+    public void invalidate() {
+        lastChangeAt = System.nanoTime();
+        changes.incrementAndGet();
+    }
+    
+    /**
+     * Answers a catalog request, with 304 when If-None-Match already
+     * names the current version
+     */
+    public ResponseEntity<byte[]> respond(String ifNoneMatch) {
+        Snapshot snapshot = snapshot();
+        if (snapshot.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(snapshot.etag)
+                .cacheControl(CacheControl.noCache())
+                .build();
+        }
+        return ResponseEntity.ok()
+            .eTag(snapshot.etag)
+            .cacheControl(CacheControl.noCache())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(snapshot.json);
+    }
+    
+    public Snapshot snapshot() {
+        Snapshot snapshot = current;
+        if (snapshot != null && !snapshot.isStale(changes.get(), minRebuildInterval, maxAge)) {
+            return snapshot;
+        }
+        
+        synchronized (rebuildLock) {
+            snapshot = current;
+            if (snapshot == null || snapshot.isStale(changes.get(), minRebuildInterval, maxAge)) {
+                snapshot = build();
+                current = snapshot;
+            }
+            return snapshot;
+        }
+    }
+    
+    private Snapshot build() {
+        // Read before loading so a change committed meanwhile triggers another rebuild
+        long version = changes.get();
+        long startedAt = System.nanoTime();
+        
+        // Read-only, so the load may use the replica and is not taken as a
+        // write by whoever triggered the rebuild
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        List<ItemResponse> items = template.execute(status -> {
+            List<ItemResponse> responses = new ArrayList<>();
+            for (Item item : itemRepository.findAll()) {
+                responses.add(ItemResponse.from(item, stockEngine.available(item)));
+            }
+            return responses;
+        });
+        
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(items);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            String etag = "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+            // The replica may not have a change that committed less than
+            // max-lag ago yet, so that snapshot is built once more after it
+            boolean recheck = false;
+            long recheckAt = 0;
+            if (replicaLagGuard != null && version > 0) {
+                recheckAt = lastChangeAt + replicaLagGuard.getMaxLag().toNanos();
+                recheck = recheckAt - startedAt > 0;
+            }
+            return new Snapshot(json, etag, version, System.nanoTime(), recheck, recheckAt);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Could not build catalog snapshot", e);
+        }
+    }
+    
+    public static final class Snapshot {
+        private final byte[] json;
+        private final String etag;
+        private final long version;
+        private final long builtAt;
+        private final boolean recheck;
+        private final long recheckAt;
+        
+        Snapshot(byte[] json, String etag, long version, long builtAt, boolean recheck, long recheckAt) {
+            this.json = json;
+            this.etag = etag;
+            this.version = version;
+            this.builtAt = builtAt;
+            this.recheck = recheck;
+            this.recheckAt = recheckAt;
+        }
+        
+        public String getEtag() {
+            return etag;
+        }
+        
+        boolean isStale(long changes, Duration minRebuildInterval, Duration maxAge) {
+            long age = System.nanoTime() - builtAt;
+            if (age >= maxAge.toNanos() || recheck && System.nanoTime() - recheckAt >= 0) {
+                return true;
+            }
+            return changes != version && age >= minRebuildInterval.toNanos();
+        }
+        
+        boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.trim();
+                if (candidate.equals("*") || candidate.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.sgtech.pos.service;
+
+import com.sgtech.pos.model.Coupon;
+import com.sgtech.pos.repository.CouponRepository;
+import com.sgtech.pos.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coupon lookups for checkout. A Bloom filter over every active code turns
+ * away unknown or mistyped codes without a query; known codes are loaded
+ * once and kept in a bounded LRU. Coupons are only returned inside their
+ * validFrom/validTo window.
+ */
+@Service
+public class CouponCache {
+    
+    private static final Logger log = LoggerFactory.getLogger(CouponCache.class);
+    
+    // Cached answer for codes that passed the filter but are not active coupons
+    private static final Coupon NOT_FOUND = new Coupon();
+    
+    @Value("${pos.coupons.cache-size:10000}")
+    private int cacheSize;
+    
+    @Value("${pos.coupons.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+    
+    @Autowired
+    private CouponRepository couponRepository;
+    
+    private volatile BloomFilter filter;
+    
+    // Codes saved while a refresh is loading, replayed into the new filter
+    private volatile Set<String> addedDuringRefresh;
+    
+    private final Map<String, Coupon> coupons = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Coupon> eldest) {
+            return size() > cacheSize;
+        }
+    };
+    
+    /**
+     * Returns the active coupon with this code if it is valid right now
+     */
+    public Optional<Coupon> findValid(String code) {
+        if (code == null || code.isEmpty() || !filter.mightContain(code)) {
+            return Optional.empty();
+        }
+        
+        Coupon coupon;
+        synchronized (coupons) {
+            coupon = coupons.get(code);
+        }
+        if (coupon == null) {
+            coupon = couponRepository.findByCodeAndActiveTrue(code).map(CouponCache::copyOf).orElse(NOT_FOUND);
+            synchronized (coupons) {
+                coupons.put(code, coupon);
+            }
+        }
+        
+        if (coupon == NOT_FOUND || !isValidAt(coupon, LocalDateTime.now())) {
+            return Optional.empty();
+        }
+        return Optional.of(coupon);
+    }
+    
+    /**
+     * Rebuilds the filter from the database and drops cached coupons, so
+     * bulk imports and changes made outside this application are picked up
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${pos.coupons.refresh-interval-ms:300000}",
+               initialDelayString = "${pos.coupons.refresh-interval-ms:300000}")
+    public void refresh() {
+        Set<String> added = ConcurrentHashMap.newKeySet();
+        addedDuringRefresh = added;
+        try {
+            List<String> codes = couponRepository.findActiveCodes();
+            BloomFilter rebuilt = new BloomFilter(Math.max(codes.size() * 2, 1024), falsePositiveRate);
+            for (String code : codes) {
+                rebuilt.add(code);
+            }
+            for (String code : added) {
+                rebuilt.add(code);
+            }
+            filter = rebuilt;
+            clear();
+            log.info("Coupon filter loaded {} active codes", codes.size());
+        } finally {
+            addedDuringRefresh = null;
+        }
+        // Saves that raced with the swap may have gone to the old filter only
+        for (String code : added) {
+            filter.add(code);
+        }
+    }
+    
+    /**
+     * Takes note of a saved coupon; called by {@link CouponService}. The
+     * code is let through the filter straight away, so the saving
+     * transaction can already look it up.
+     */
+    public void couponChanged(Coupon coupon) {
+        if (Boolean.TRUE.equals(coupon.getActive())) {
+            filter.add(coupon.getCode());
+            Set<String> added = addedDuringRefresh;
+            if (added != null) {
+                added.add(coupon.getCode());
+            }
+        }
+        // An update may have changed the code itself, and coupons change
+        // rarely, so drop everything rather than one entry. Only once the
+        // change has committed: a checkout reloading before that would
+        // cache the old row until the next refresh. A rollback clears too,
+        // as the writing transaction may have cached its own changes.
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            clear();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                clear();
+            }
+        });
+    }
+    
+    private void clear() {
+        synchronized (coupons) {
+            coupons.clear();
+        }
+    }
+    
+    static boolean isValidAt(Coupon coupon, LocalDateTime time) {
+        return (coupon.getValidFrom() == null || !time.isBefore(coupon.getValidFrom()))
+            && (coupon.getValidTo() == null || !time.isAfter(coupon.getValidTo()));
+    }
+    
+    // Cached coupons are shared between requests, so they are detached copies
+    private static Coupon copyOf(Coupon source) {
+        Coupon copy = new Coupon(source.getCode(), source.getDiscountPercent());
+        copy.setId(source.getId());
+        copy.setActive(source.getActive());
+        copy.setValidFrom(source.getValidFrom());
+        copy.setValidTo(source.getValidTo());
+        return copy;
+    }
+}
@@ -0,0 +1,28 @@
+package com.sgtech.pos.service;
+
+import com.sgtech.pos.model.Coupon;
+import com.sgtech.pos.repository.CouponRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class CouponService {
+    
+    @Autowired
+    private CouponRepository couponRepository;
+    
+    @Autowired
+    private CouponCache couponCache;
+    
+    /**
+     * Creates or updates a coupon. Coupons must be written here rather
+     * than through the repository so checkout lookups see the change.
+     */
+    @Transactional
+    public Coupon save(Coupon coupon) {
+        Coupon saved = couponRepository.save(coupon);
+        couponCache.couponChanged(saved);
+        return saved;
+    }
+}
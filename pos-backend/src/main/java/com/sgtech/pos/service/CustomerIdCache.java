@@ -0,0 +1,79 @@
+package com.sgtech.pos.service;
+
+import com.sgtech.pos.repository.CustomerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Phone to customer id for the rental counter, kept in a bounded LRU so a
+ * repeat customer costs no query at all. Misses go through the phone
+ * upsert, which also creates first-time customers.
+ */
+@Service
+public class CustomerIdCache {
+    
+    @Value("${pos.customers.id-cache-size:10000}")
+    private int cacheSize;
+    
+    @Autowired
+    private CustomerRepository customerRepository;
+    
+    private final Map<String, UUID> ids = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, UUID> eldest) {
+            return size() > cacheSize;
+        }
+    };
+    
+    /**
+     * Id of the customer with this phone, created if new. Must be called
+     * inside the transaction that uses the id.
+     */
+    public UUID getOrCreate(String phone) {
+        synchronized (ids) {
+            UUID id = ids.get(phone);
+            if (id != null) {
+                return id;
+            }
+        }
+        
+        UUID id = customerRepository.upsertByPhone(phone);
+        // A customer created by a transaction that rolls back must not stay cached
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(phone, id);
+            return id;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    put(phone, id);
+                }
+            }
+        });
+        return id;
+    }
+    
+    /**
+     * Forgets the id cached for a phone, e.g. once its customer turned out
+     * to be gone
+     */
+    public void evict(String phone) {
+        synchronized (ids) {
+            ids.remove(phone);
+        }
+    }
+    
+    private void put(String phone, UUID id) {
+        synchronized (ids) {
+            ids.put(phone, id);
+        }
+    }
+}
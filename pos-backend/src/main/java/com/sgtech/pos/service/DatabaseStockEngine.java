@@ -0,0 +1,41 @@
+package com.sgtech.pos.service;
+
+import com.sgtech.pos.model.Item;
+import com.sgtech.pos.repository.ItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/**
+ * Stock engine that writes every movement straight to the items table
+ */
+@Service
+@ConditionalOnProperty(name = "pos.inventory.engine", havingValue = "database", matchIfMissing = true)
+public class DatabaseStockEngine implements StockEngine {
+    
+    @Autowired
+    private ItemRepository itemRepository;
+    
+    @Override
+    public int available(Item item) {
+        return item.getQuantity();
+    }
+    
+    @Override
+    public void take(Map<Item, Integer> quantities) {
+        itemRepository.decrementStock(quantities);
+    }
+    
+    @Override
+    public void restore(Map<Item, Integer> quantities) {
+        itemRepository.incrementStock(quantities);
+    }
+    
+    @Override
+    public Item setQuantity(Item item, int quantity) {
+        item.setQuantity(quantity);
+        return itemRepository.save(item);
+    }
+}
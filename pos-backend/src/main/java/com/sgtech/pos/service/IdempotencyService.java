@@ -0,0 +1,188 @@
+package com.sgtech.pos.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the responses of completed write requests by their
+ * Idempotency-Key header so a register that retries after a timeout gets
+ * the original result instead of creating a second transaction. The store
+ * of completed responses is bounded and entries expire after a
+ * configurable time to live; requests still running are tracked apart from
+ * it so that eviction can never let a retry run them a second time.
+ */
+@Service
+public class IdempotencyService {
+    
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    
+    @Value("${pos.idempotency.max-entries:10000}")
+    private int maxEntries;
+    
+    @Value("${pos.idempotency.ttl:PT24H}")
+    private Duration ttl;
+    
+    @Value("${pos.idempotency.wait-timeout:PT30S}")
+    private Duration waitTimeout;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private final Map<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+    
+    // Bounded by the requests running at once; guarded by entries
+    private final Map<String, Entry> inFlight = new HashMap<>();
+    
+    /**
+     * Runs the action once per scope and key. A replay with the same key
+     * returns the stored response, waiting for it if the first request is
+     * still running. Only successful responses are kept, so a request that
+     * failed can be retried with the same key. Requests without a key are
+     * executed directly.
+     */
+    public <T> ResponseEntity<T> execute(String scope, String key, Object request,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        
+        String storeKey = scope + ":" + key;
+        String fingerprint = fingerprint(request);
+        Entry entry;
+        boolean owner = false;
+        
+        synchronized (entries) {
+            entry = inFlight.get(storeKey);
+            if (entry == null) {
+                entry = entries.get(storeKey);
+            }
+            if (entry == null || entry.isExpired()) {
+                entries.remove(storeKey);
+                entry = new Entry(fingerprint, System.currentTimeMillis() + ttl.toMillis());
+                inFlight.put(storeKey, entry);
+                owner = true;
+            }
+        }
+        
+        if (!owner) {
+            if (!entry.fingerprint.equals(fingerprint)) {
+                // Same key reused for a different request body
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+            }
+            return replay(entry);
+        }
+        
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            finish(storeKey, entry, false);
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+        
+        finish(storeKey, entry, response.getStatusCode().is2xxSuccessful());
+        entry.response.complete(response);
+        return response;
+    }
+    
+    /**
+     * Drops expired entries so idle keys do not hold memory until they are
+     * pushed out by newer ones
+     */
+    @Scheduled(fixedDelayString = "${pos.idempotency.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        synchronized (entries) {
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().isExpired()) {
+                    it.remove();
+                }
+            }
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<T> replay(Entry entry) {
+        ResponseEntity<?> original;
+        try {
+            original = entry.response.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+        
+        return (ResponseEntity<T>) ResponseEntity.status(original.getStatusCode())
+            .headers(original.getHeaders())
+            .header(REPLAYED_HEADER, "true")
+            .body(original.getBody());
+    }
+    
+    // Moves a finished request into the bounded store, or drops it when
+    // its response is not to be kept
+    private void finish(String storeKey, Entry entry, boolean keep) {
+        synchronized (entries) {
+            inFlight.remove(storeKey, entry);
+            if (keep) {
+                entries.put(storeKey, entry);
+            }
+        }
+    }
+    
+    private String fingerprint(Object request) {
+        try {
+            byte[] body = request == null ? new byte[0] : objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Could not fingerprint request", e);
+        }
+    }
+    
+    private static final class Entry {
+        final String fingerprint;
+        final long expiresAt;
+        final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+        
+        Entry(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+        
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
@@ -3,39 +3,120 @@ package com.sgtech.pos.service;
 import com.sgtech.pos.model.Item;
 import com.sgtech.pos.repository.ItemRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class InventoryService {
     
+    public static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+    public static final int MAX_SEARCH_PAGE_SIZE = 100;
+    
     @Autowired
     private ItemRepository itemRepository;
     
+    @Autowired
+    private StockEngine stockEngine;
+    
+    @Autowired
+    private ItemChangeFeed itemChangeFeed;
+    
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+    
+    @Autowired
+    private LowStockWatchlist lowStockWatchlist;
+    
+    @Transactional(readOnly = true)
     public List<Item> getAllItems() {
         return itemRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
     public Optional<Item> getItemById(UUID id) {
         return itemRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
     public Optional<Item> getItemByItemId(Integer itemId) {
         return itemRepository.findByItemId(itemId);
     }
     
+    @Transactional(readOnly = true)
     public List<Item> searchItems(String name) {
-        return itemRepository.findByNameContainingIgnoreCase(name);
+        return searchItems(name, 0, DEFAULT_SEARCH_PAGE_SIZE).getContent();
     }
     
-    public List<Item> getLowStockItems(int threshold) {
-        return itemRepository.findByQuantityLessThanEqual(threshold);
+    /**
+     * Ranked item name search; only the requested page is loaded
+     */
+    @Transactional(readOnly = true)
+    public Page<Item> searchItems(String name, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        ItemSearchIndex.Hits hits = itemSearchIndex.search(name, Math.max(page, 0), pageSize);
+        List<Item> items = findInOrder(hits.getItemIds());
+        return new PageImpl<>(items, PageRequest.of(Math.max(page, 0), pageSize), hits.getTotal());
     }
     
+    @Transactional(readOnly = true)
+    public List<Item> getLowStockItems() {
+        return getLowStockItems(null);
+    }
+    
+    /**
+     * Items at or below their reorder threshold, lowest stock first,
+     * optionally limited to those with at most maxQuantity left
+     */
+    @Transactional(readOnly = true)
+    public List<Item> getLowStockItems(Integer maxQuantity) {
+        return findInOrder(lowStockWatchlist.lowStock(maxQuantity));
+    }
+    
+    /**
+     * Adds an item to the catalog
+     */
+    @Transactional
+    public Item addItem(Item item) {
+        Item saved = itemRepository.save(item);
+        itemChangeFeed.itemsChanged(List.of(saved));
+        return saved;
+    }
+    
+    @Transactional
+    public void deleteItem(UUID itemId) {
+        itemRepository.findById(itemId).ifPresent(item -> {
+            itemRepository.delete(item);
+            itemChangeFeed.itemsRemoved(List.of(item));
+        });
+    }
+    
+    @RetryOnConflict
+    @Transactional
+    public Item updateReorderThreshold(UUID itemId, Integer threshold) {
+        Item item = itemRepository.findById(itemId)
+            .orElseThrow(() -> new RuntimeException("Item not found"));
+        
+        if (threshold != null && threshold < 0) {
+            throw new RuntimeException("Reorder threshold cannot be negative");
+        }
+        
+        item.setReorderThreshold(threshold);
+        Item saved = itemRepository.save(item);
+        itemChangeFeed.itemsChanged(List.of(saved));
+        return saved;
+    }
+    
+    @RetryOnConflict
     @Transactional
     public Item updateItemQuantity(UUID itemId, int newQuantity) {
         Item item = itemRepository.findById(itemId)
@@ -45,10 +126,12 @@ public class InventoryService {
             throw new RuntimeException("Quantity cannot be negative");
         }
         
-        item.setQuantity(newQuantity);
-        return itemRepository.save(item);
+        Item saved = stockEngine.setQuantity(item, newQuantity);
+        itemChangeFeed.itemsChanged(List.of(saved));
+        return saved;
     }
     
+    @RetryOnConflict
     @Transactional
     public Item updateItemQuantityByItemId(Integer itemId, int newQuantity) {
         Item item = itemRepository.findByItemId(itemId)
@@ -58,8 +141,27 @@ public class InventoryService {
             throw new RuntimeException("Quantity cannot be negative");
         }
         
-        item.setQuantity(newQuantity);
-        return itemRepository.save(item);
+        Item saved = stockEngine.setQuantity(item, newQuantity);
+        itemChangeFeed.itemsChanged(List.of(saved));
+        return saved;
+    }
+    
+    // Loads the given items in one query, keeping the order of itemIds
+    private List<Item> findInOrder(List<Integer> itemIds) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, Item> byItemId = new HashMap<>();
+        for (Item item : itemRepository.findByItemIdIn(itemIds)) {
+            byItemId.put(item.getItemId(), item);
+        }
+        List<Item> items = new ArrayList<>(itemIds.size());
+        for (Integer itemId : itemIds) {
+            Item item = byItemId.get(itemId);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
     }
 }
-
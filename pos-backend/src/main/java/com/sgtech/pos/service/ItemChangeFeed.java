@@ -0,0 +1,165 @@
+package com.sgtech.pos.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgtech.pos.dto.ItemDelta;
+import com.sgtech.pos.model.Item;
+import com.sgtech.pos.util.SseBroadcaster;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes item stock and price changes to connected clients so they can
+ * keep their catalog current without reloading it. Changes are collected
+ * once the changing transaction commits and sent in one batch per
+ * interval, carrying only the latest state of each item touched in it.
+ */
+@Service
+public class ItemChangeFeed {
+    
+    public static final String EVENT_NAME = "items";
+    
+    @Value("${pos.items.changes.emitter-timeout:PT30M}")
+    private Duration emitterTimeout;
+    
+    @Autowired
+    private StockEngine stockEngine;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private CatalogSnapshot catalogSnapshot;
+    
+    @Autowired
+    private LowStockWatchlist lowStockWatchlist;
+    
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+    
+    private SseBroadcaster subscribers;
+    
+    private final Map<Integer, Pending> pending = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void init() {
+        subscribers = new SseBroadcaster(emitterTimeout);
+    }
+    
+    /**
+     * Queues the given items for the next push, marks the catalog
+     * snapshot stale and updates the low-stock watchlist and search index.
+     * Every service that saves items reports them here. Inside a
+     * transaction all of this happens after commit, so rolled back changes
+     * are never sent.
+     */
+    public void itemsChanged(Collection<Item> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        List<Item> changed = new ArrayList<>(items);
+        afterCommit(() -> committed(changed));
+    }
+    
+    /**
+     * Drops deleted items from the catalog snapshot, low-stock watchlist
+     * and search index once the delete has committed
+     */
+    public void itemsRemoved(Collection<Item> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        List<Item> removed = new ArrayList<>(items);
+        afterCommit(() -> {
+            catalogSnapshot.invalidate();
+            lowStockWatchlist.itemsRemoved(removed);
+            itemSearchIndex.itemsRemoved(removed);
+        });
+    }
+    
+    public SseEmitter subscribe() {
+        return subscribers.subscribe();
+    }
+    
+    @Scheduled(fixedDelayString = "${pos.items.changes.coalesce-ms:250}")
+    public void push() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        
+        List<ItemDelta> deltas = new ArrayList<>(pending.size());
+        for (Integer itemId : pending.keySet()) {
+            Pending change = pending.remove(itemId);
+            if (change != null) {
+                deltas.add(change.delta);
+            }
+        }
+        if (deltas.isEmpty() || subscribers.isEmpty()) {
+            return;
+        }
+        
+        try {
+            subscribers.broadcast(EVENT_NAME, objectMapper.writeValueAsString(deltas));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize item changes", e);
+        }
+    }
+    
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    private void committed(Collection<Item> items) {
+        catalogSnapshot.invalidate();
+        lowStockWatchlist.stockChanged(items);
+        itemSearchIndex.itemsChanged(items);
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        for (Item item : items) {
+            long version = item.getVersion() == null ? 0 : item.getVersion();
+            Pending change = new Pending(
+                new ItemDelta(item.getItemId(), stockEngine.available(item), item.getPrice()), version);
+            // Commits can finish out of order; an older version never
+            // replaces a newer one waiting in the same window
+            pending.merge(item.getItemId(), change,
+                (current, next) -> next.version >= current.version ? next : current);
+        }
+    }
+    
+    private static final class Pending {
+        final ItemDelta delta;
+        final long version;
+        
+        Pending(ItemDelta delta, long version) {
+            this.delta = delta;
+            this.version = version;
+        }
+    }
+}
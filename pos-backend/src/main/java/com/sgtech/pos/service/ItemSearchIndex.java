@@ -0,0 +1,259 @@
+package com.sgtech.pos.service;
+
+import com.sgtech.pos.model.Item;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Item name search over an in-memory trigram index. Every word of a name
+ * is padded and cut into three-character grams, each mapped to the items
+ * containing it, so a query only scores items sharing at least one gram
+ * with it instead of scanning the items table. Results are ranked by
+ * trigram similarity with substring, prefix and exact matches first.
+ */
+@Service
+public class ItemSearchIndex {
+    
+    private static final Logger log = LoggerFactory.getLogger(ItemSearchIndex.class);
+    
+    @Value("${pos.search.min-similarity:0.3}")
+    private double minSimilarity;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    // itemId -> normalized name
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+    
+    // trigram -> itemIds whose name contains it
+    private final Map<String, Set<Integer>> postings = new ConcurrentHashMap<>();
+    
+    /**
+     * Returns one page of matching itemIds, best match first
+     */
+    public Hits search(String query, int page, int size) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return new Hits(List.of(), 0);
+        }
+        Set<String> queryGrams = trigrams(normalized);
+        String[] words = normalized.split(" ");
+        
+        Map<Integer, Integer> shared = new HashMap<>();
+        if (normalized.length() < 3) {
+            // Too short to narrow by grams; substring matches are all that count
+            for (Entry entry : entries.values()) {
+                if (entry.name.contains(normalized)) {
+                    shared.put(entry.itemId, 0);
+                }
+            }
+        } else {
+            for (String gram : queryGrams) {
+                Set<Integer> itemIds = postings.get(gram);
+                if (itemIds != null) {
+                    for (Integer itemId : itemIds) {
+                        shared.merge(itemId, 1, Integer::sum);
+                    }
+                }
+            }
+        }
+        
+        List<Scored> matches = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> candidate : shared.entrySet()) {
+            Entry entry = entries.get(candidate.getKey());
+            if (entry == null) {
+                continue;
+            }
+            int common = candidate.getValue();
+            double similarity = (double) common / (queryGrams.size() + entry.gramCount - common);
+            boolean containsAll = true;
+            for (String word : words) {
+                containsAll &= entry.name.contains(word);
+            }
+            if (!containsAll && similarity < minSimilarity) {
+                continue;
+            }
+            
+            double score = similarity;
+            if (containsAll) {
+                score += 1;
+            }
+            if (entry.name.startsWith(normalized)) {
+                score += 1;
+            }
+            if (entry.name.equals(normalized)) {
+                score += 1;
+            }
+            matches.add(new Scored(entry, score));
+        }
+        
+        matches.sort(Comparator.comparingDouble((Scored s) -> -s.score)
+            .thenComparing(s -> s.entry.name)
+            .thenComparing(s -> s.entry.itemId));
+        
+        int from = (int) Math.min((long) page * size, matches.size());
+        int to = Math.min(from + size, matches.size());
+        List<Integer> itemIds = new ArrayList<>(to - from);
+        for (Scored match : matches.subList(from, to)) {
+            itemIds.add(match.entry.itemId);
+        }
+        return new Hits(itemIds, matches.size());
+    }
+    
+    /**
+     * Reloads the index from the database, picking up names written
+     * outside the application
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${pos.search.refresh-interval-ms:300000}",
+               initialDelayString = "${pos.search.refresh-interval-ms:300000}")
+    public synchronized void refresh() {
+        Map<Integer, String> names = new HashMap<>();
+        jdbcTemplate.query("SELECT item_id, name FROM items",
+            rs -> { names.put(rs.getInt("item_id"), rs.getString("name")); });
+        
+        for (Integer itemId : new ArrayList<>(entries.keySet())) {
+            if (!names.containsKey(itemId)) {
+                remove(itemId);
+            }
+        }
+        names.forEach(this::put);
+        log.info("Item search index loaded {} items", names.size());
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    /**
+     * Applies committed item changes; called by {@link ItemChangeFeed}
+     */
+    public void itemsChanged(Collection<Item> items) {
+        for (Item item : items) {
+            Entry current = entries.get(item.getItemId());
+            if (current == null || !current.original.equals(item.getName())) {
+                put(item.getItemId(), item.getName());
+            }
+        }
+    }
+    
+    public void itemsRemoved(Collection<Item> items) {
+        for (Item item : items) {
+            remove(item.getItemId());
+        }
+    }
+    
+    private synchronized void put(Integer itemId, String name) {
+        Entry entry = new Entry(itemId, name);
+        Entry previous = entries.put(itemId, entry);
+        if (previous != null) {
+            unpost(previous);
+        }
+        for (String gram : entry.grams) {
+            postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(itemId);
+        }
+    }
+    
+    private synchronized Entry remove(Integer itemId) {
+        Entry previous = entries.remove(itemId);
+        if (previous != null) {
+            unpost(previous);
+        }
+        return previous;
+    }
+    
+    private void unpost(Entry entry) {
+        for (String gram : entry.grams) {
+            Set<Integer> itemIds = postings.get(gram);
+            if (itemIds != null) {
+                itemIds.remove(entry.itemId);
+                if (itemIds.isEmpty()) {
+                    postings.remove(gram, itemIds);
+                }
+            }
+        }
+    }
+    
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+    
+    // Same padding as pg_trgm: two spaces before each word, one after
+    static Set<String> trigrams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String word : normalized.split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+    
+    private static final class Entry {
+        final Integer itemId;
+        final String original;
+        final String name;
+        final Set<String> grams;
+        final int gramCount;
+        
+        Entry(Integer itemId, String original) {
+            this.itemId = itemId;
+            this.original = original;
+            this.name = normalize(original);
+            this.grams = trigrams(name);
+            this.gramCount = grams.size();
+        }
+    }
+    
+    private static final class Scored {
+        final Entry entry;
+        final double score;
+        
+        Scored(Entry entry, double score) {
+            this.entry = entry;
+            this.score = score;
+        }
+    }
+    
+    public static final class Hits {
+        private final List<Integer> itemIds;
+        private final int total;
+        
+        Hits(List<Integer> itemIds, int total) {
+            this.itemIds = itemIds;
+            this.total = total;
+        }
+        
+        public List<Integer> getItemIds() {
+            return itemIds;
+        }
+        
+        public int getTotal() {
+            return total;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.sgtech.pos.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgtech.pos.dto.DashboardSnapshot;
+import com.sgtech.pos.model.OutboxEvent;
+import com.sgtech.pos.util.RingBuffer;
+import com.sgtech.pos.util.SseBroadcaster;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Live sales figures for manager dashboards. Completed sales arrive from
+ * the outbox after commit and are kept in a ring buffer of recent events;
+ * one snapshot is computed from it per push interval and the same JSON is
+ * sent to every connected dashboard, so adding clients never adds
+ * database work.
+ */
+@Service
+public class LiveDashboardService implements OutboxEventListener {
+    
+    private static final Logger log = LoggerFactory.getLogger(LiveDashboardService.class);
+    
+    public static final String EVENT_NAME = "sales";
+    
+    @Value("${pos.dashboard.buffer-size:16384}")
+    private int bufferSize;
+    
+    @Value("${pos.dashboard.window-minutes:15}")
+    private int windowMinutes;
+    
+    @Value("${pos.dashboard.top-items:10}")
+    private int topItems;
+    
+    @Value("${pos.dashboard.emitter-timeout:PT30M}")
+    private Duration emitterTimeout;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private RingBuffer<SaleEvent> recentSales;
+    
+    private SseBroadcaster subscribers;
+    
+    @PostConstruct
+    public void init() {
+        recentSales = new RingBuffer<>(bufferSize);
+        subscribers = new SseBroadcaster(emitterTimeout);
+    }
+    
+    @Override
+    public void onEvent(OutboxEvent event) {
+        if (!OutboxService.SALE_COMPLETED.equals(event.getEventType())) {
+            return;
+        }
+        
+        JsonNode payload;
+        try {
+            payload = objectMapper.readTree(event.getPayload());
+        } catch (JsonProcessingException e) {
+            // Redelivery would not make the payload readable
+            log.warn("Skipping unreadable sale event {}: {}", event.getId(), e.getMessage());
+            return;
+        }
+        
+        List<SaleEvent.Line> lines = new ArrayList<>();
+        for (JsonNode line : payload.path("lines")) {
+            lines.add(new SaleEvent.Line(line.path("itemId").asInt(), line.path("name").asText(),
+                line.path("quantity").asInt(), line.path("amount").decimalValue()));
+        }
+        LocalDateTime time = event.getCreatedAt() == null ? LocalDateTime.now() : event.getCreatedAt();
+        recentSales.add(new SaleEvent(event.getAggregateId(), time,
+            payload.path("finalTotal").decimalValue(), List.copyOf(lines)));
+    }
+    
+    public DashboardSnapshot snapshot() {
+        return snapshot(LocalDateTime.now());
+    }
+    
+    DashboardSnapshot snapshot(LocalDateTime now) {
+        LocalDateTime currentMinute = now.truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime since = currentMinute.minusMinutes(windowMinutes - 1L);
+        
+        // Every minute of the window is listed, including quiet ones
+        Map<LocalDateTime, DashboardSnapshot.Minute> minutes = new TreeMap<>();
+        for (LocalDateTime minute = since; !minute.isAfter(currentMinute); minute = minute.plusMinutes(1)) {
+            minutes.put(minute, new DashboardSnapshot.Minute(minute, 0, BigDecimal.ZERO));
+        }
+        
+        Map<Integer, DashboardSnapshot.TopItem> items = new HashMap<>();
+        Set<UUID> seen = new HashSet<>();
+        long transactions = 0;
+        BigDecimal revenue = BigDecimal.ZERO;
+        for (SaleEvent sale : recentSales.snapshot()) {
+            DashboardSnapshot.Minute minute = minutes.get(sale.time.truncatedTo(ChronoUnit.MINUTES));
+            // Outbox delivery is at least once, so a sale can appear twice
+            if (minute == null || !seen.add(sale.saleId)) {
+                continue;
+            }
+            minute.setTransactions(minute.getTransactions() + 1);
+            minute.setRevenue(minute.getRevenue().add(sale.finalTotal));
+            transactions++;
+            revenue = revenue.add(sale.finalTotal);
+            
+            for (SaleEvent.Line line : sale.lines) {
+                DashboardSnapshot.TopItem item = items.computeIfAbsent(line.itemId,
+                    id -> new DashboardSnapshot.TopItem(id, line.name, 0, BigDecimal.ZERO));
+                item.setQuantity(item.getQuantity() + line.quantity);
+                item.setRevenue(item.getRevenue().add(line.amount));
+            }
+        }
+        
+        List<DashboardSnapshot.TopItem> ranked = new ArrayList<>(items.values());
+        ranked.sort((a, b) -> b.getRevenue().compareTo(a.getRevenue()));
+        return new DashboardSnapshot(now, windowMinutes, transactions, revenue,
+            new ArrayList<>(minutes.values()), ranked.subList(0, Math.min(topItems, ranked.size())));
+    }
+    
+    /**
+     * Registers a dashboard connection and sends it the current figures
+     * straight away rather than at the next push
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = subscribers.subscribe();
+        subscribers.send(emitter, EVENT_NAME, serialize(snapshot()));
+        return emitter;
+    }
+    
+    @Scheduled(fixedDelayString = "${pos.dashboard.push-interval-ms:2000}")
+    public void push() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        subscribers.broadcast(EVENT_NAME, serialize(snapshot()));
+    }
+    
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+    
+    private String serialize(DashboardSnapshot snapshot) {
+        try {
+            return objectMapper.writeValueAsString(snapshot);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize dashboard snapshot", e);
+        }
+    }
+    
+    private static final class SaleEvent {
+        final UUID saleId;
+        final LocalDateTime time;
+        final BigDecimal finalTotal;
+        final List<Line> lines;
+        
+        SaleEvent(UUID saleId, LocalDateTime time, BigDecimal finalTotal, List<Line> lines) {
+            this.saleId = saleId;
+            this.time = time;
+            this.finalTotal = finalTotal;
+            this.lines = lines;
+        }
+        
+        static final class Line {
+            final int itemId;
+            final String name;
+            final int quantity;
+            final BigDecimal amount;
+            
+            Line(int itemId, String name, int quantity, BigDecimal amount) {
+                this.itemId = itemId;
+                this.name = name;
+                this.quantity = quantity;
+                this.amount = amount;
+            }
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.sgtech.pos.service;
+
+import com.sgtech.pos.model.Item;
+import com.sgtech.pos.repository.ItemRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Items at or below their reorder threshold, kept ordered by quantity so
+ * the low-stock endpoints read the first k entries instead of scanning
+ * items. Every stock change updates the item's level, and a change that
+ * takes an item across its threshold publishes a {@link ThresholdCrossed}
+ * event once the change has committed.
+ */
+@Service
+public class LowStockWatchlist {
+    
+    private static final Logger log = LoggerFactory.getLogger(LowStockWatchlist.class);
+    
+    private static final Comparator<Level> BY_QUANTITY =
+        Comparator.comparingInt((Level level) -> level.quantity).thenComparing(level -> level.itemId);
+    
+    // Used for items without a reorder threshold of their own
+    @Value("${pos.inventory.low-stock.default-threshold:10}")
+    private int defaultThreshold;
+    
+    @Autowired
+    private ItemRepository itemRepository;
+    
+    @Autowired
+    private StockEngine stockEngine;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    // Latest known level of every item
+    private final Map<Integer, Level> levels = new ConcurrentHashMap<>();
+    
+    private final NavigableSet<Level> low = new ConcurrentSkipListSet<>(BY_QUANTITY);
+    
+    /**
+     * ItemIds at or below their threshold, lowest quantity first. A
+     * maxQuantity further limits the list to items with at most that many
+     * left.
+     */
+    public List<Integer> lowStock(Integer maxQuantity) {
+        List<Integer> itemIds = new ArrayList<>();
+        for (Level level : low) {
+            if (maxQuantity != null && level.quantity > maxQuantity) {
+                break;
+            }
+            itemIds.add(level.itemId);
+        }
+        return itemIds;
+    }
+    
+    /**
+     * Applies committed item changes; called by {@link ItemChangeFeed}.
+     * The items must carry the quantity and version stored by the change,
+     * as the stock writes leave them; levels from older versions are
+     * ignored.
+     */
+    public void stockChanged(Collection<Item> items) {
+        for (Item item : items) {
+            Level previous = levels.get(item.getItemId());
+            Level next = levelOf(item);
+            if (apply(next, false)) {
+                crossed(previous, next);
+            }
+        }
+    }
+    
+    /**
+     * Reloads every level from the primary, picking up changes made
+     * outside the application
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${pos.inventory.low-stock.refresh-interval-ms:300000}",
+               initialDelayString = "${pos.inventory.low-stock.refresh-interval-ms:300000}")
+    public void refresh() {
+        List<Level> loaded = new TransactionTemplate(transactionManager).execute(status -> {
+            List<Level> result = new ArrayList<>();
+            for (Item item : itemRepository.findAll()) {
+                result.add(levelOf(item));
+            }
+            return result;
+        });
+        
+        Map<Integer, Level> byItemId = new HashMap<>();
+        for (Level level : loaded) {
+            byItemId.put(level.itemId, level);
+        }
+        for (Integer itemId : new ArrayList<>(levels.keySet())) {
+            if (!byItemId.containsKey(itemId)) {
+                remove(itemId);
+            }
+        }
+        for (Level level : loaded) {
+            Level previous = levels.get(level.itemId);
+            if (apply(level, false)) {
+                crossed(previous, level);
+            }
+        }
+        log.info("Low-stock watchlist loaded {} items, {} low", loaded.size(), low.size());
+    }
+    
+    public void itemsRemoved(Collection<Item> items) {
+        for (Item item : items) {
+            remove(item.getItemId());
+        }
+    }
+    
+    private Level levelOf(Item item) {
+        long version = item.getVersion() == null ? 0 : item.getVersion();
+        return new Level(item.getItemId(), stockEngine.available(item), thresholdOf(item), version);
+    }
+    
+    private int thresholdOf(Item item) {
+        return item.getReorderThreshold() == null ? defaultThreshold : item.getReorderThreshold();
+    }
+    
+    // Returns false when a newer level is already in place; commits can
+    // finish out of order
+    private boolean apply(Level next, boolean force) {
+        boolean[] applied = new boolean[1];
+        levels.compute(next.itemId, (itemId, current) -> {
+            if (current != null && !force && current.version > next.version) {
+                return current;
+            }
+            if (current != null) {
+                low.remove(current);
+            }
+            if (next.isLow()) {
+                low.add(next);
+            }
+            applied[0] = true;
+            return next;
+        });
+        return applied[0];
+    }
+    
+    private void remove(Integer itemId) {
+        levels.computeIfPresent(itemId, (id, current) -> {
+            low.remove(current);
+            return null;
+        });
+    }
+    
+    private void crossed(Level previous, Level next) {
+        if (previous == null || previous.isLow() == next.isLow()) {
+            return;
+        }
+        if (next.isLow()) {
+            log.info("Item {} is low on stock: {} left, reorder threshold {}",
+                next.itemId, next.quantity, next.threshold);
+        }
+        eventPublisher.publishEvent(new ThresholdCrossed(next.itemId, next.quantity, next.threshold, next.isLow()));
+    }
+    
+    private static final class Level {
+        final Integer itemId;
+        final int quantity;
+        final int threshold;
+        final long version;
+        
+        Level(Integer itemId, int quantity, int threshold, long version) {
+            this.itemId = itemId;
+            this.quantity = quantity;
+            this.threshold = threshold;
+            this.version = version;
+        }
+        
+        boolean isLow() {
+            return quantity <= threshold;
+        }
+    }
+    
+    /**
+     * Published when an item's stock falls to its reorder threshold or
+     * below (low is true), or is restocked above it again
+     */
+    public static final class ThresholdCrossed {
+        private final Integer itemId;
+        private final int quantity;
+        private final int threshold;
+        private final boolean low;
+        
+        public ThresholdCrossed(Integer itemId, int quantity, int threshold, boolean low) {
+            this.itemId = itemId;
+            this.quantity = quantity;
+            this.threshold = threshold;
+            this.low = low;
+        }
+        
+        public Integer getItemId() {
+            return itemId;
+        }
+        
+        public int getQuantity() {
+            return quantity;
+        }
+        
+        public int getThreshold() {
+            return threshold;
+        }
+        
+        public boolean isLow() {
+            return low;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.sgtech.pos.service;
+
+import com.sgtech.pos.model.OutboxEvent;
+import com.sgtech.pos.repository.OutboxEventRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drains committed outbox events in batches and hands each one to every
+ * {@link OutboxEventListener} on the outbox thread pool. Draining is
+ * triggered right after a transaction that recorded events commits, with
+ * a fixed-delay poll as a safety net for events left over from a restart.
+ */
+@Service
+public class OutboxDispatcher {
+    
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+    
+    @Value("${pos.outbox.batch-size:100}")
+    private int batchSize;
+    
+    @Value("${pos.outbox.max-attempts:5}")
+    private int maxAttempts;
+    
+    @Value("${pos.outbox.retention-days:7}")
+    private int retentionDays;
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Autowired(required = false)
+    private List<OutboxEventListener> listeners = Collections.emptyList();
+    
+    @Autowired
+    @Qualifier("outboxExecutor")
+    private TaskExecutor outboxExecutor;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    // Drains run here so they never occupy a delivery thread they wait on
+    private final ExecutorService drainer = Executors.newSingleThreadExecutor(r -> new Thread(r, "outbox-drain"));
+    
+    private final AtomicBoolean draining = new AtomicBoolean();
+    
+    private final AtomicBoolean wakeRequested = new AtomicBoolean();
+    
+    public void wakeUp() {
+        wakeRequested.set(true);
+        drainer.execute(this::drain);
+    }
+    
+    @Scheduled(fixedDelayString = "${pos.outbox.poll-interval-ms:5000}")
+    public void poll() {
+        wakeRequested.set(true);
+        drain();
+    }
+    
+    @Scheduled(cron = "${pos.outbox.cleanup-cron:0 30 3 * * *}")
+    public void purgeDispatched() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            outboxEventRepository.deleteDispatchedBefore(
+                OutboxEvent.DISPATCHED, LocalDateTime.now().minusDays(retentionDays)));
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        drainer.shutdown();
+    }
+    
+    private void drain() {
+        // Only one drain at a time; a wake-up that arrives meanwhile makes
+        // the running drain go round once more
+        while (wakeRequested.get() && draining.compareAndSet(false, true)) {
+            try {
+                wakeRequested.set(false);
+                boolean more = true;
+                while (more) {
+                    more = dispatchBatch();
+                }
+            } catch (RuntimeException e) {
+                log.warn("Outbox dispatch failed: {}", e.getMessage());
+                return;
+            } finally {
+                draining.set(false);
+            }
+        }
+    }
+    
+    /**
+     * Delivers one batch and returns true if a full batch was delivered
+     * without failures, meaning more events may be waiting
+     */
+    private boolean dispatchBatch() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        List<OutboxEvent> batch = tx.execute(status ->
+            outboxEventRepository.findByStatusOrderByCreatedAtAsc(OutboxEvent.PENDING, PageRequest.of(0, batchSize)));
+        if (batch == null || batch.isEmpty()) {
+            return false;
+        }
+        
+        List<CompletableFuture<Boolean>> deliveries = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            deliveries.add(CompletableFuture.supplyAsync(() -> deliver(event), outboxExecutor));
+        }
+        
+        List<UUID> delivered = new ArrayList<>();
+        List<OutboxEvent> failed = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (deliveries.get(i).join()) {
+                delivered.add(batch.get(i).getId());
+            } else {
+                failed.add(batch.get(i));
+            }
+        }
+        
+        tx.executeWithoutResult(status -> {
+            if (!delivered.isEmpty()) {
+                outboxEventRepository.markDispatched(delivered, OutboxEvent.DISPATCHED, LocalDateTime.now());
+            }
+            for (OutboxEvent event : failed) {
+                event.setAttempts(event.getAttempts() + 1);
+                if (event.getAttempts() >= maxAttempts) {
+                    event.setStatus(OutboxEvent.FAILED);
+                }
+                outboxEventRepository.save(event);
+            }
+        });
+        
+        return failed.isEmpty() && batch.size() == batchSize;
+    }
+    
+    private boolean deliver(OutboxEvent event) {
+        try {
+            for (OutboxEventListener listener : listeners) {
+                listener.onEvent(event);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Outbox listener failed for {} {}: {}", event.getEventType(), event.getId(), e.getMessage());
+            String message = String.valueOf(e.getMessage());
+            event.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+            return false;
+        }
+    }
+}
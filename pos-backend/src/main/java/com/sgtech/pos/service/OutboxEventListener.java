@@ -0,0 +1,13 @@
+package com.sgtech.pos.service;
+
+import com.sgtech.pos.model.OutboxEvent;
+
+/**
+ * In-process consumer of committed outbox events. Listeners run on the
+ * outbox dispatcher pool, never inside the checkout transaction, and may
+ * see an event more than once if a previous delivery failed.
+ */
+public interface OutboxEventListener {
+    
+    void onEvent(OutboxEvent event);
+}
@@ -0,0 +1,123 @@
+package com.sgtech.pos.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgtech.pos.model.*;
+import com.sgtech.pos.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes domain events to the outbox table in the caller's transaction, so
+ * an event exists if and only if the sale, rental or return committed.
+ */
+@Service
+public class OutboxService {
+    
+    public static final String SALE_COMPLETED = "SALE_COMPLETED";
+    public static final String RENTAL_COMPLETED = "RENTAL_COMPLETED";
+    public static final String RETURN_COMPLETED = "RETURN_COMPLETED";
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    @Lazy
+    private OutboxDispatcher outboxDispatcher;
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvent saleCompleted(Sale sale) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("saleId", sale.getId());
+        payload.put("employeeId", sale.getEmployee().getId());
+        payload.put("totalAmount", sale.getTotalAmount());
+        payload.put("taxAmount", sale.getTaxAmount());
+        payload.put("discountAmount", sale.getDiscountAmount());
+        payload.put("finalTotal", sale.getFinalTotal());
+        payload.put("couponCode", sale.getCouponCode());
+        List<Map<String, Object>> lines = new ArrayList<>();
+        for (SaleItem saleItem : sale.getSaleItems()) {
+            lines.add(line(saleItem.getItem(), saleItem.getQuantity(), saleItem.getSubtotal()));
+        }
+        payload.put("lines", lines);
+        return record(SALE_COMPLETED, "Sale", sale.getId(), payload);
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvent rentalCompleted(Rental rental) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("rentalId", rental.getId());
+        payload.put("customerId", rental.getCustomer().getId());
+        payload.put("employeeId", rental.getEmployee().getId());
+        payload.put("dueDate", rental.getDueDate());
+        payload.put("totalAmount", rental.getTotalAmount());
+        payload.put("taxAmount", rental.getTaxAmount());
+        List<Map<String, Object>> lines = new ArrayList<>();
+        for (RentalItem rentalItem : rental.getRentalItems()) {
+            lines.add(line(rentalItem.getItem(), rentalItem.getQuantity(),
+                rentalItem.getUnitPrice().multiply(BigDecimal.valueOf(rentalItem.getQuantity()))));
+        }
+        payload.put("lines", lines);
+        return record(RENTAL_COMPLETED, "Rental", rental.getId(), payload);
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvent returnCompleted(Return returnEntity) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("returnId", returnEntity.getId());
+        payload.put("rentalId", returnEntity.getRental().getId());
+        payload.put("employeeId", returnEntity.getEmployee().getId());
+        payload.put("totalRefund", returnEntity.getTotalRefund());
+        List<Map<String, Object>> lines = new ArrayList<>();
+        for (ReturnItem returnItem : returnEntity.getReturnItems()) {
+            lines.add(line(returnItem.getRentalItem().getItem(), returnItem.getQuantity(), returnItem.getRefundAmount()));
+        }
+        payload.put("lines", lines);
+        return record(RETURN_COMPLETED, "Return", returnEntity.getId(), payload);
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvent record(String eventType, String aggregateType, UUID aggregateId, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize " + eventType + " event", e);
+        }
+        
+        OutboxEvent event = outboxEventRepository.save(new OutboxEvent(eventType, aggregateType, aggregateId, json));
+        
+        // Start draining as soon as the event is visible instead of waiting for the next poll
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxDispatcher.wakeUp();
+            }
+        });
+        return event;
+    }
+    
+    private Map<String, Object> line(Item item, Integer quantity, Object amount) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("itemId", item.getItemId());
+        line.put("name", item.getName());
+        line.put("quantity", quantity);
+        line.put("amount", amount);
+        return line;
+    }
+}
@@ -0,0 +1,66 @@
+package com.sgtech.pos.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Checkout arithmetic in whole cents. Amounts stay in {@code long} while a
+ * basket is priced and are turned into {@link BigDecimal} only when they
+ * are stored. Rounding matches the BigDecimal calculation it replaces:
+ * tax and discounts are rounded HALF_UP to the cent.
+ */
+public final class PricingEngine {
+    
+    public static final int TAX_RATE_BASIS_POINTS = 600; // 6% tax
+    
+    private PricingEngine() {}
+    
+    /**
+     * Converts a money amount with at most two decimals to cents
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+    
+    public static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+    
+    /**
+     * Converts a percentage with at most two decimals, such as a coupon's
+     * discount percent, to basis points
+     */
+    public static int toBasisPoints(BigDecimal percent) {
+        return percent.movePointRight(2).intValueExact();
+    }
+    
+    public static long lineTotal(long unitCents, int quantity) {
+        return Math.multiplyExact(unitCents, (long) quantity);
+    }
+    
+    public static long tax(long subtotalCents) {
+        return share(subtotalCents, TAX_RATE_BASIS_POINTS);
+    }
+    
+    public static long discount(long totalCents, int basisPoints) {
+        return share(totalCents, basisPoints);
+    }
+    
+    /**
+     * Late fee on a rental line: basisPointsPerDay of the line total for
+     * every day late
+     */
+    public static long lateFee(long lineCents, long daysLate, int basisPointsPerDay) {
+        return share(Math.multiplyExact(lineCents, daysLate), basisPointsPerDay);
+    }
+    
+    /**
+     * cents * basisPoints / 10000 rounded HALF_UP, that is half a cent
+     * rounds away from zero as BigDecimal does
+     */
+    private static long share(long cents, int basisPoints) {
+        if (cents < 0) {
+            return -share(-cents, basisPoints);
+        }
+        return (Math.multiplyExact(cents, (long) basisPoints) + 5000) / 10000;
+    }
+}
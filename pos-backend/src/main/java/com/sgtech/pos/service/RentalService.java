@@ -3,22 +3,55 @@ package com.sgtech.pos.service;
 import com.sgtech.pos.dto.RentalRequest;
 import com.sgtech.pos.model.*;
 import com.sgtech.pos.repository.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class RentalService {
     
+    private static final Logger log = LoggerFactory.getLogger(RentalService.class);
+    
+    public static final String SORT_DAYS_LATE = "daysLate";
+    public static final String SORT_FEE = "fee";
+    
+    private static final int MAX_OVERDUE_PAGE_SIZE = 200;
+    
+    // SQLSTATEs of an insert referencing a missing row: PostgreSQL uses
+    // the standard 23503, H2 its own 23506
+    private static final Set<String> FOREIGN_KEY_VIOLATIONS = Set.of("23503", "23506");
+    
+    // Share of a line's price charged per day late, in basis points
+    @Value("${pos.rentals.late-fee-basis-points:1000}")
+    private int lateFeeBasisPoints;
+    
     @Autowired
     private RentalRepository rentalRepository;
     
@@ -28,38 +61,59 @@ public class RentalService {
     @Autowired
     private ItemRepository itemRepository;
     
+    @Autowired
+    private StockEngine stockEngine;
+    
+    @Autowired
+    private ItemChangeFeed itemChangeFeed;
+    
     @Autowired
     private CustomerRepository customerRepository;
     
+    @Autowired
+    private CustomerIdCache customerIdCache;
+    
     @Autowired
     private EmployeeRepository employeeRepository;
     
-    private static final BigDecimal TAX_RATE = new BigDecimal("0.06"); // 6% tax
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    // The day days overdue were last brought up to date
+    private volatile LocalDate daysOverdueUpdatedOn;
     
+    @RetryOnConflict
     @Transactional
     public Rental processRental(UUID employeeId, RentalRequest request) {
-        // Get or create customer
-        Customer customer = customerRepository.findByPhone(request.getCustomerPhone())
-            .orElseGet(() -> {
-                Customer newCustomer = new Customer(request.getCustomerPhone());
-                return customerRepository.save(newCustomer);
-            });
+        // Get or create customer with one upsert, or none for a cached phone;
+        // the rental only needs a reference to the row
+        UUID customerId = customerIdCache.getOrCreate(request.getCustomerPhone());
+        Customer customer = customerRepository.getReferenceById(customerId);
         
         // Get employee
         Employee employee = employeeRepository.findById(employeeId)
             .orElseThrow(() -> new RuntimeException("Employee not found"));
         
-        // Calculate totals
-        BigDecimal subtotal = BigDecimal.ZERO;
+        // Resolve every item in the rental with a single query
+        Map<Integer, Item> itemsById = loadItems(request.getItems());
+        
+        // Calculate totals in cents
+        long subtotal = 0;
         List<RentalItem> rentalItems = new ArrayList<>();
+        Map<Item, Integer> stockChanges = new LinkedHashMap<>();
         
         for (RentalRequest.RentalItemRequest itemRequest : request.getItems()) {
-            // Get item from database
-            Item item = itemRepository.findByItemId(itemRequest.getItemId())
-                .orElseThrow(() -> new RuntimeException("Item not found: " + itemRequest.getItemId()));
+            Item item = itemsById.get(itemRequest.getItemId());
+            if (item == null) {
+                throw new RuntimeException("Item not found: " + itemRequest.getItemId());
+            }
             
-            // Check inventory
-            if (item.getQuantity() < itemRequest.getQuantity()) {
+            // Check inventory against everything requested for this item so far
+            int requested = stockChanges.merge(item, itemRequest.getQuantity(), Integer::sum);
+            if (stockEngine.available(item) < requested) {
                 throw new RuntimeException("Insufficient inventory for item: " + item.getName());
             }
             
@@ -69,39 +123,76 @@ public class RentalService {
             rentalItem.setQuantity(itemRequest.getQuantity());
             rentalItem.setUnitPrice(item.getPrice());
             
-            BigDecimal itemSubtotal = item.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
-            subtotal = subtotal.add(itemSubtotal);
+            subtotal += PricingEngine.lineTotal(PricingEngine.toCents(item.getPrice()), itemRequest.getQuantity());
             rentalItems.add(rentalItem);
-            
-            // Update inventory
-            item.setQuantity(item.getQuantity() - itemRequest.getQuantity());
-            itemRepository.save(item);
         }
         
         // Calculate tax
-        BigDecimal taxAmount = subtotal.multiply(TAX_RATE).setScale(2, RoundingMode.HALF_UP);
-        BigDecimal totalWithTax = subtotal.add(taxAmount);
+        long taxAmount = PricingEngine.tax(subtotal);
         
         // Create rental
         Rental rental = new Rental();
         rental.setCustomer(customer);
         rental.setEmployee(employee);
         rental.setDueDate(request.getDueDate());
-        rental.setTotalAmount(subtotal);
-        rental.setTaxAmount(taxAmount);
+        rental.setTotalAmount(PricingEngine.toAmount(subtotal));
+        rental.setTaxAmount(PricingEngine.toAmount(taxAmount));
         
-        rental = rentalRepository.save(rental);
+        // Flushed here so a cached customer id that no longer exists shows
+        // up as a foreign key violation inside this method
+        try {
+            rental = rentalRepository.saveAndFlush(rental);
+        } catch (DataIntegrityViolationException e) {
+            if (!isForeignKeyViolation(e)) {
+                throw e;
+            }
+            // The customer was deleted or merged after its id was cached;
+            // the retry upserts the phone again
+            customerIdCache.evict(request.getCustomerPhone());
+            throw new OptimisticLockingFailureException(
+                "Customer for phone " + request.getCustomerPhone() + " changed since it was cached", e);
+        }
         
-        // Set rental reference and save rental items
+        // Set rental reference and save rental items as one JDBC batch
         for (RentalItem rentalItem : rentalItems) {
             rentalItem.setRental(rental);
-            rentalItemRepository.save(rentalItem);
         }
+        rentalItemRepository.saveAll(rentalItems);
+        
+        // Take the stock with a guarded decrement so concurrent rentals cannot oversell
+        stockEngine.take(stockChanges);
+        itemChangeFeed.itemsChanged(stockChanges.keySet());
         
         rental.setRentalItems(rentalItems);
+        
+        outboxService.rentalCompleted(rental);
         return rental;
     }
     
+    private static boolean isForeignKeyViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                    && FOREIGN_KEY_VIOLATIONS.contains(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private Map<Integer, Item> loadItems(List<RentalRequest.RentalItemRequest> itemRequests) {
+        Set<Integer> itemIds = new HashSet<>();
+        for (RentalRequest.RentalItemRequest itemRequest : itemRequests) {
+            itemIds.add(itemRequest.getItemId());
+        }
+        
+        Map<Integer, Item> itemsById = new HashMap<>();
+        for (Item item : itemRepository.findByItemIdIn(itemIds)) {
+            itemsById.put(item.getItemId(), item);
+        }
+        return itemsById;
+    }
+    
+    @Transactional(readOnly = true)
     public List<Rental> getRentalsByCustomer(String phone) {
         Optional<Customer> customerOpt = customerRepository.findByPhone(phone);
         if (customerOpt.isEmpty()) {
@@ -110,32 +201,82 @@ public class RentalService {
         return rentalRepository.findByCustomerId(customerOpt.get().getId());
     }
     
+    /**
+     * Unreturned lines of a customer's rentals, earliest due first. Days
+     * overdue are the values stored by {@link #updateDaysOverdue()}.
+     */
+    @Transactional(readOnly = true)
     public List<RentalItem> getOutstandingRentals(String phone) {
-        Optional<Customer> customerOpt = customerRepository.findByPhone(phone);
-        if (customerOpt.isEmpty()) {
-            return new ArrayList<>();
+        updateDaysOverdueIfBehind();
+        return rentalItemRepository.findOutstandingByCustomerPhone(phone);
+    }
+    
+    /**
+     * One page of unreturned lines past their due date across all
+     * customers, sorted by days late or by estimated fee, largest first
+     */
+    @Transactional(readOnly = true)
+    public Page<RentalItem> getOverdueRentals(String sort, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_OVERDUE_PAGE_SIZE)));
+        LocalDate today = LocalDate.now();
+        if (sort == null || SORT_DAYS_LATE.equals(sort)) {
+            return rentalItemRepository.findOverdueByDaysLate(today, pageRequest);
         }
-        
-        List<Rental> rentals = rentalRepository.findByCustomerId(customerOpt.get().getId());
-        List<RentalItem> outstandingItems = new ArrayList<>();
+        if (SORT_FEE.equals(sort)) {
+            return rentalItemRepository.findOverdueByFee(today, pageRequest);
+        }
+        throw new RuntimeException("Unknown sort: " + sort);
+    }
+    
+    public long daysLate(RentalItem rentalItem, LocalDate today) {
+        return Math.max(0, ChronoUnit.DAYS.between(rentalItem.getRental().getDueDate(), today));
+    }
+    
+    public BigDecimal estimatedLateFee(RentalItem rentalItem, LocalDate today) {
+        long lineCents = PricingEngine.lineTotal(PricingEngine.toCents(rentalItem.getUnitPrice()),
+            rentalItem.getOutstandingQuantity());
+        return PricingEngine.toAmount(PricingEngine.lateFee(lineCents, daysLate(rentalItem, today), lateFeeBasisPoints));
+    }
+    
+    /**
+     * Recomputes days overdue for every unreturned line past its due date
+     * with one statement. Runs just after midnight, when the count changes.
+     */
+    @Scheduled(cron = "${pos.rentals.overdue-cron:0 5 0 * * *}")
+    @Transactional
+    public int updateDaysOverdue() {
         LocalDate today = LocalDate.now();
-        
-        for (Rental rental : rentals) {
-            for (RentalItem item : rental.getRentalItems()) {
-                if (!item.getReturned()) {
-                    // Calculate days overdue
-                    long daysOverdue = ChronoUnit.DAYS.between(rental.getDueDate(), today);
-                    if (daysOverdue > 0) {
-                        item.setDaysOverdue((int) daysOverdue);
-                    }
-                    outstandingItems.add(item);
-                }
+        int updated = rentalItemRepository.updateDaysOverdue(today);
+        daysOverdueUpdatedOn = today;
+        log.info("Updated days overdue on {} rental items", updated);
+        return updated;
+    }
+    
+    /**
+     * Runs the update at startup and before the first lookup of a day it
+     * has not run on yet, so a backend that was down at midnight does not
+     * report yesterday's values until the next night
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void updateDaysOverdueIfBehind() {
+        LocalDate today = LocalDate.now();
+        if (today.equals(daysOverdueUpdatedOn)) {
+            return;
+        }
+        synchronized (this) {
+            if (today.equals(daysOverdueUpdatedOn)) {
+                return;
             }
+            // Lookups are read-only, so the update gets its own transaction
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            int updated = template.execute(status -> rentalItemRepository.updateDaysOverdue(today));
+            daysOverdueUpdatedOn = today;
+            log.info("Brought days overdue up to date on {} rental items", updated);
         }
-        
-        return outstandingItems;
     }
     
+    @Transactional(readOnly = true)
     public Optional<Rental> getRentalById(UUID rentalId) {
         return rentalRepository.findById(rentalId);
     }
@@ -0,0 +1,63 @@
+package com.sgtech.pos.service;
+
+import com.sgtech.pos.dto.DailySalesReport;
+import com.sgtech.pos.dto.EmployeeSalesReport;
+import com.sgtech.pos.dto.ItemSalesReport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sales reports read from the rollup tables maintained by
+ * SalesRollupService. Date ranges are inclusive on both ends.
+ */
+@Service
+public class ReportService {
+    
+    private static final int MAX_ITEMS = 500;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Transactional(readOnly = true)
+    public List<DailySalesReport> getDailySales(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(
+            "SELECT sale_date, SUM(transaction_count), SUM(subtotal_amount), SUM(tax_amount), " +
+            "SUM(discount_amount), SUM(final_amount), SUM(return_count), SUM(refund_amount) " +
+            "FROM daily_sales_rollup WHERE sale_date >= ? AND sale_date <= ? " +
+            "GROUP BY sale_date ORDER BY sale_date",
+            (rs, n) -> new DailySalesReport(rs.getObject(1, LocalDate.class), rs.getLong(2),
+                rs.getBigDecimal(3), rs.getBigDecimal(4), rs.getBigDecimal(5), rs.getBigDecimal(6),
+                rs.getLong(7), rs.getBigDecimal(8)),
+            Date.valueOf(from), Date.valueOf(to));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<ItemSalesReport> getTopItems(LocalDate from, LocalDate to, int limit) {
+        return jdbcTemplate.query(
+            "SELECT i.item_id, i.name, r.quantity_sold, r.revenue FROM (" +
+            "SELECT item_id, SUM(quantity_sold) AS quantity_sold, SUM(revenue) AS revenue " +
+            "FROM daily_item_sales_rollup WHERE sale_date >= ? AND sale_date <= ? GROUP BY item_id) r " +
+            "JOIN items i ON i.id = r.item_id ORDER BY r.revenue DESC, i.item_id LIMIT ?",
+            (rs, n) -> new ItemSalesReport(rs.getInt(1), rs.getString(2), rs.getLong(3), rs.getBigDecimal(4)),
+            Date.valueOf(from), Date.valueOf(to), Math.max(1, Math.min(limit, MAX_ITEMS)));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<EmployeeSalesReport> getEmployeeSales(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(
+            "SELECT e.id, e.username, r.transaction_count, r.final_amount FROM (" +
+            "SELECT employee_id, SUM(transaction_count) AS transaction_count, SUM(final_amount) AS final_amount " +
+            "FROM daily_employee_sales_rollup WHERE sale_date >= ? AND sale_date <= ? GROUP BY employee_id) r " +
+            "JOIN employees e ON e.id = r.employee_id ORDER BY r.final_amount DESC, e.username",
+            (rs, n) -> new EmployeeSalesReport(rs.getObject(1, UUID.class), rs.getString(2), rs.getLong(3),
+                rs.getBigDecimal(4)),
+            Date.valueOf(from), Date.valueOf(to));
+    }
+}
@@ -0,0 +1,26 @@
+package com.sgtech.pos.service;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-runs a transactional stock operation when another register changed
+ * the same item first, or a rental's cached customer has gone. The retry
+ * advice wraps the transaction, so every attempt starts a fresh
+ * transaction and re-reads the items.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Retryable(
+    retryFor = OptimisticLockingFailureException.class,
+    maxAttemptsExpression = "${pos.stock.retry.max-attempts:3}",
+    backoff = @Backoff(delayExpression = "${pos.stock.retry.backoff-ms:20}", multiplier = 2, random = true)
+)
+public @interface RetryOnConflict {
+}
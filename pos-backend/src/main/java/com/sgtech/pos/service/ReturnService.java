@@ -10,8 +10,13 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -27,36 +32,52 @@ public class ReturnService {
     private RentalItemRepository rentalItemRepository;
     
     @Autowired
-    private ItemRepository itemRepository;
+    private StockEngine stockEngine;
+    
+    @Autowired
+    private ItemChangeFeed itemChangeFeed;
     
     @Autowired
     private EmployeeRepository employeeRepository;
     
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private SalesRollupService salesRollupService;
+    
+    @RetryOnConflict
     @Transactional
     public Return processReturn(UUID employeeId, ReturnRequest request) {
         // Get employee
         Employee employee = employeeRepository.findById(employeeId)
             .orElseThrow(() -> new RuntimeException("Employee not found"));
         
+        // Load every rental item in the return with a single query
+        Map<UUID, RentalItem> rentalItemsById = loadRentalItems(request.getItems());
+        
         // Process return items
         BigDecimal totalRefund = BigDecimal.ZERO;
         List<ReturnItem> returnItems = new ArrayList<>();
+        Map<Item, Integer> restocks = new LinkedHashMap<>();
         Rental rental = null;
         
         for (ReturnRequest.ReturnItemRequest itemRequest : request.getItems()) {
             // Get rental item
-            RentalItem rentalItem = rentalItemRepository.findById(itemRequest.getRentalItemId())
-                .orElseThrow(() -> new RuntimeException("Rental item not found"));
-            
-            // Validate quantity
-            if (itemRequest.getQuantity() > rentalItem.getQuantity() || itemRequest.getQuantity() <= 0) {
-                throw new RuntimeException("Invalid return quantity");
+            RentalItem rentalItem = rentalItemsById.get(itemRequest.getRentalItemId());
+            if (rentalItem == null) {
+                throw new RuntimeException("Rental item not found");
             }
             
+            // Validate quantity against what is still out
             if (rentalItem.getReturned()) {
                 throw new RuntimeException("Item already returned");
             }
             
+            if (itemRequest.getQuantity() > rentalItem.getOutstandingQuantity() || itemRequest.getQuantity() <= 0) {
+                throw new RuntimeException("Invalid return quantity");
+            }
+            
             // Get rental for return entity
             if (rental == null) {
                 rental = rentalItem.getRental();
@@ -74,36 +95,26 @@ public class ReturnService {
             returnItem.setRefundAmount(refundAmount);
             returnItems.add(returnItem);
             
-            // Update rental item
-            if (itemRequest.getQuantity().equals(rentalItem.getQuantity())) {
-                rentalItem.setReturned(true);
-                rentalItem.setReturnDate(LocalDate.now());
-            } else {
-                // Partial return - create new rental item for remaining quantity
-                RentalItem remainingItem = new RentalItem();
-                remainingItem.setRental(rental);
-                remainingItem.setItem(rentalItem.getItem());
-                remainingItem.setQuantity(rentalItem.getQuantity() - itemRequest.getQuantity());
-                remainingItem.setUnitPrice(rentalItem.getUnitPrice());
-                rentalItemRepository.save(remainingItem);
-                
-                rentalItem.setQuantity(itemRequest.getQuantity());
+            // Update rental item; partial returns stay on the same row and the
+            // line counts as returned once every unit is back
+            rentalItem.setReturnedQuantity(rentalItem.getReturnedQuantity() + itemRequest.getQuantity());
+            if (rentalItem.getOutstandingQuantity() == 0) {
                 rentalItem.setReturned(true);
                 rentalItem.setReturnDate(LocalDate.now());
             }
             
-            rentalItemRepository.save(rentalItem);
-            
-            // Restore inventory
-            Item item = rentalItem.getItem();
-            item.setQuantity(item.getQuantity() + itemRequest.getQuantity());
-            itemRepository.save(item);
+            // Collect inventory to restore per item
+            restocks.merge(rentalItem.getItem(), itemRequest.getQuantity(), Integer::sum);
         }
         
         if (rental == null) {
             throw new RuntimeException("No rental found for return items");
         }
         
+        // Restore inventory with one update per item
+        stockEngine.restore(restocks);
+        itemChangeFeed.itemsChanged(restocks.keySet());
+        
         // Create return
         Return returnEntity = new Return();
         returnEntity.setRental(rental);
@@ -112,16 +123,32 @@ public class ReturnService {
         
         returnEntity = returnRepository.save(returnEntity);
         
-        // Set return reference and save return items
+        // Set return reference and save return items as one JDBC batch
         for (ReturnItem returnItem : returnItems) {
             returnItem.setReturnEntity(returnEntity);
-            returnItemRepository.save(returnItem);
         }
+        returnItemRepository.saveAll(returnItems);
         
         returnEntity.setReturnItems(returnItems);
+        
+        salesRollupService.recordReturn(returnEntity);
+        outboxService.returnCompleted(returnEntity);
         return returnEntity;
     }
     
+    private Map<UUID, RentalItem> loadRentalItems(List<ReturnRequest.ReturnItemRequest> itemRequests) {
+        Set<UUID> rentalItemIds = new HashSet<>();
+        for (ReturnRequest.ReturnItemRequest itemRequest : itemRequests) {
+            rentalItemIds.add(itemRequest.getRentalItemId());
+        }
+        
+        Map<UUID, RentalItem> rentalItemsById = new HashMap<>();
+        for (RentalItem rentalItem : rentalItemRepository.findByIdIn(rentalItemIds)) {
+            rentalItemsById.put(rentalItem.getId(), rentalItem);
+        }
+        return rentalItemsById;
+    }
+    
     public Optional<Return> getReturnById(UUID returnId) {
         return returnRepository.findById(returnId);
     }
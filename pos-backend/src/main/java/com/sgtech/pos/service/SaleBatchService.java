@@ -0,0 +1,138 @@
+package com.sgtech.pos.service;
+
+import com.sgtech.pos.dto.SaleBatchResponse;
+import com.sgtech.pos.dto.SaleRequest;
+import com.sgtech.pos.model.Employee;
+import com.sgtech.pos.model.Item;
+import com.sgtech.pos.model.Sale;
+import com.sgtech.pos.repository.EmployeeRepository;
+import com.sgtech.pos.repository.SaleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Replays sales that registers queued while offline. Sales are committed
+ * in chunks: each chunk resolves its items with one query, inserts all of
+ * its sales together and takes the stock of every item in one grouped
+ * update. Sales that cannot be priced are reported individually without
+ * affecting the rest of their chunk.
+ */
+@Service
+public class SaleBatchService {
+    
+    @Value("${pos.sales.batch.chunk-size:50}")
+    private int chunkSize;
+    
+    @Autowired
+    private SaleService saleService;
+    
+    @Autowired
+    private SaleRepository saleRepository;
+    
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    
+    @Autowired
+    private StockEngine stockEngine;
+    
+    @Autowired
+    private ItemChangeFeed itemChangeFeed;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private SalesRollupService salesRollupService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    public SaleBatchResponse processBatch(UUID employeeId, List<SaleRequest> requests) {
+        if (!employeeRepository.existsById(employeeId)) {
+            throw new RuntimeException("Employee not found");
+        }
+        
+        SaleBatchResponse.Result[] results = new SaleBatchResponse.Result[requests.size()];
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        
+        for (int from = 0; from < requests.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, requests.size());
+            int offset = from;
+            List<SaleRequest> chunk = requests.subList(from, to);
+            
+            SaleBatchResponse.Result[] chunkResults;
+            try {
+                chunkResults = tx.execute(status -> processChunk(employeeId, chunk, offset));
+            } catch (RuntimeException e) {
+                // Stock moved between the check and the grouped update, or a
+                // write failed; the chunk rolled back, so replay it sale by sale
+                chunkResults = new SaleBatchResponse.Result[chunk.size()];
+                for (int i = 0; i < chunk.size(); i++) {
+                    chunkResults[i] = processSingle(employeeId, chunk.get(i), offset + i);
+                }
+            }
+            System.arraycopy(chunkResults, 0, results, from, chunkResults.length);
+        }
+        
+        return new SaleBatchResponse(Arrays.asList(results));
+    }
+    
+    private SaleBatchResponse.Result[] processChunk(UUID employeeId, List<SaleRequest> chunk, int offset) {
+        Employee employee = employeeRepository.findById(employeeId)
+            .orElseThrow(() -> new RuntimeException("Employee not found"));
+        Map<Integer, Item> itemsById = saleService.loadItems(chunk);
+        
+        SaleBatchResponse.Result[] results = new SaleBatchResponse.Result[chunk.size()];
+        Map<Item, Integer> stockChanges = new LinkedHashMap<>();
+        List<Sale> sales = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        
+        for (int i = 0; i < chunk.size(); i++) {
+            // Price against a copy so a rejected sale leaves no reservation behind
+            Map<Item, Integer> reserved = new LinkedHashMap<>(stockChanges);
+            try {
+                sales.add(saleService.priceSale(employee, chunk.get(i), itemsById, reserved));
+                positions.add(i);
+                stockChanges = reserved;
+            } catch (RuntimeException e) {
+                results[i] = SaleBatchResponse.Result.failure(offset + i, e.getMessage());
+            }
+        }
+        
+        if (sales.isEmpty()) {
+            return results;
+        }
+        
+        sales = saleRepository.saveAll(sales);
+        stockEngine.take(stockChanges);
+        itemChangeFeed.itemsChanged(stockChanges.keySet());
+        salesRollupService.recordSales(sales);
+        
+        for (int s = 0; s < sales.size(); s++) {
+            Sale sale = sales.get(s);
+            outboxService.saleCompleted(sale);
+            int i = positions.get(s);
+            results[i] = SaleBatchResponse.Result.success(offset + i, sale.getId(), sale.getFinalTotal());
+        }
+        return results;
+    }
+    
+    private SaleBatchResponse.Result processSingle(UUID employeeId, SaleRequest request, int index) {
+        try {
+            Sale sale = saleService.processSale(employeeId, request);
+            return SaleBatchResponse.Result.success(index, sale.getId(), sale.getFinalTotal());
+        } catch (RuntimeException e) {
+            return SaleBatchResponse.Result.failure(index, e.getMessage());
+        }
+    }
+}
@@ -1,18 +1,32 @@
 package com.sgtech.pos.service;
 
+import com.sgtech.pos.dto.SalePage;
 import com.sgtech.pos.dto.SaleRequest;
+import com.sgtech.pos.dto.SaleResponse;
 import com.sgtech.pos.model.*;
 import com.sgtech.pos.repository.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class SaleService {
@@ -21,37 +35,157 @@ public class SaleService {
     private SaleRepository saleRepository;
     
     @Autowired
-    private SaleItemRepository saleItemRepository;
+    private ItemRepository itemRepository;
     
     @Autowired
-    private ItemRepository itemRepository;
+    private StockEngine stockEngine;
+    
+    @Autowired
+    private ItemChangeFeed itemChangeFeed;
     
     @Autowired
     private EmployeeRepository employeeRepository;
     
     @Autowired
-    private CouponRepository couponRepository;
+    private CouponCache couponCache;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private SalesRollupService salesRollupService;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    // Sales loaded per query by the export
+    @Value("${pos.sales.export.batch-size:500}")
+    private int exportBatchSize;
     
-    private static final BigDecimal TAX_RATE = new BigDecimal("0.06"); // 6% tax
     private static final BigDecimal COUPON_DISCOUNT = new BigDecimal("0.10"); // 10% discount
     
+    private static final int MAX_PAGE_SIZE = 500;
+    
+    @RetryOnConflict
     @Transactional
     public Sale processSale(UUID employeeId, SaleRequest request) {
         // Get employee
         Employee employee = employeeRepository.findById(employeeId)
             .orElseThrow(() -> new RuntimeException("Employee not found"));
         
-        // Calculate totals
-        BigDecimal subtotal = BigDecimal.ZERO;
+        // Resolve every item in the basket with a single query
+        Map<Integer, Item> itemsById = loadItems(List.of(request));
+        
+        Map<Item, Integer> stockChanges = new LinkedHashMap<>();
+        Sale sale = priceSale(employee, request, itemsById, stockChanges);
+        
+        // Sale lines are cascaded and written as one JDBC batch
+        sale = saleRepository.save(sale);
+        
+        // Update inventory for all items in one batched statement
+        stockEngine.take(stockChanges);
+        itemChangeFeed.itemsChanged(stockChanges.keySet());
+        
+        // Report rollups commit with the sale
+        salesRollupService.recordSales(List.of(sale));
+        
+        // Downstream consumers pick this up after commit
+        outboxService.saleCompleted(sale);
+        return sale;
+    }
+    
+    /**
+     * Commits a cart that was priced while it was scanned. Stock is checked
+     * and taken again here; prices and totals are taken from the cart. The
+     * coupon is checked again too: if it has expired, been withdrawn or
+     * changed since it was applied, the cart is repriced and the checkout
+     * rejected so the register can show the new total.
+     */
+    @RetryOnConflict
+    @Transactional
+    public Sale processCart(UUID employeeId, Cart cart) {
+        Employee employee = employeeRepository.findById(employeeId)
+            .orElseThrow(() -> new RuntimeException("Employee not found"));
+        
+        String couponCode = cart.getCouponCode();
+        if (couponCode != null) {
+            BigDecimal shownTotal = cart.getTotal();
+            Optional<Coupon> coupon = couponCache.findValid(couponCode);
+            cart.setCoupon(coupon.map(Coupon::getCode).orElse(null),
+                coupon.map(Coupon::getDiscountPercent).orElse(null));
+            if (cart.getTotal().compareTo(shownTotal) != 0) {
+                throw new RuntimeException("Coupon no longer applies: " + couponCode);
+            }
+        }
+        
+        List<Cart.Line> lines = cart.getLines();
+        Set<Integer> itemIds = new HashSet<>();
+        for (Cart.Line line : lines) {
+            itemIds.add(line.getItemId());
+        }
+        Map<Integer, Item> itemsById = loadItems(itemIds);
+        
+        List<SaleItem> saleItems = new ArrayList<>();
+        Map<Item, Integer> stockChanges = new LinkedHashMap<>();
+        for (Cart.Line line : lines) {
+            Item item = itemsById.get(line.getItemId());
+            if (item == null) {
+                throw new RuntimeException("Item not found: " + line.getItemId());
+            }
+            if (stockEngine.available(item) < line.getQuantity()) {
+                throw new RuntimeException("Insufficient inventory for item: " + item.getName());
+            }
+            stockChanges.put(item, line.getQuantity());
+            
+            SaleItem saleItem = new SaleItem();
+            saleItem.setItem(item);
+            saleItem.setQuantity(line.getQuantity());
+            saleItem.setUnitPrice(line.getUnitPrice());
+            saleItem.setSubtotal(line.getSubtotal());
+            saleItems.add(saleItem);
+        }
+        
+        Sale sale = new Sale();
+        sale.setEmployee(employee);
+        sale.setTotalAmount(cart.getSubtotal());
+        sale.setTaxAmount(cart.getTaxAmount());
+        sale.setDiscountAmount(cart.getDiscountAmount());
+        sale.setFinalTotal(cart.getTotal());
+        sale.setCouponCode(cart.getCouponCode());
+        for (SaleItem saleItem : saleItems) {
+            saleItem.setSale(sale);
+        }
+        sale.setSaleItems(saleItems);
+        
+        sale = saleRepository.save(sale);
+        stockEngine.take(stockChanges);
+        itemChangeFeed.itemsChanged(stockChanges.keySet());
+        salesRollupService.recordSales(List.of(sale));
+        outboxService.saleCompleted(sale);
+        return sale;
+    }
+    
+    /**
+     * Prices a sale without saving it. The quantities it needs are added to
+     * stockChanges, which may already hold quantities reserved by other
+     * sales in the same transaction; availability is checked against the
+     * combined amount.
+     */
+    public Sale priceSale(Employee employee, SaleRequest request, Map<Integer, Item> itemsById,
+                          Map<Item, Integer> stockChanges) {
+        // Calculate totals in cents
+        long subtotal = 0;
         List<SaleItem> saleItems = new ArrayList<>();
         
         for (SaleRequest.SaleItemRequest itemRequest : request.getItems()) {
-            // Get item from database
-            Item item = itemRepository.findByItemId(itemRequest.getItemId())
-                .orElseThrow(() -> new RuntimeException("Item not found: " + itemRequest.getItemId()));
+            Item item = itemsById.get(itemRequest.getItemId());
+            if (item == null) {
+                throw new RuntimeException("Item not found: " + itemRequest.getItemId());
+            }
             
-            // Check inventory
-            if (item.getQuantity() < itemRequest.getQuantity()) {
+            // Check inventory against everything requested for this item so far
+            int requested = stockChanges.merge(item, itemRequest.getQuantity(), Integer::sum);
+            if (stockEngine.available(item) < requested) {
                 throw new RuntimeException("Insufficient inventory for item: " + item.getName());
             }
             
@@ -60,62 +194,161 @@ public class SaleService {
             saleItem.setItem(item);
             saleItem.setQuantity(itemRequest.getQuantity());
             saleItem.setUnitPrice(item.getPrice());
-            saleItem.setSubtotal(item.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity())));
             
-            subtotal = subtotal.add(saleItem.getSubtotal());
-            saleItems.add(saleItem);
+            long lineTotal = PricingEngine.lineTotal(PricingEngine.toCents(item.getPrice()), itemRequest.getQuantity());
+            saleItem.setSubtotal(PricingEngine.toAmount(lineTotal));
             
-            // Update inventory
-            item.setQuantity(item.getQuantity() - itemRequest.getQuantity());
-            itemRepository.save(item);
+            subtotal += lineTotal;
+            saleItems.add(saleItem);
         }
         
         // Calculate tax
-        BigDecimal taxAmount = subtotal.multiply(TAX_RATE).setScale(2, RoundingMode.HALF_UP);
-        BigDecimal totalWithTax = subtotal.add(taxAmount);
+        long taxAmount = PricingEngine.tax(subtotal);
+        long totalWithTax = subtotal + taxAmount;
         
         // Apply coupon if provided
-        BigDecimal discountAmount = BigDecimal.ZERO;
+        long discountAmount = 0;
         String couponCode = null;
         if (request.getCouponCode() != null && !request.getCouponCode().isEmpty()) {
-            Optional<Coupon> couponOpt = couponRepository.findByCodeAndActiveTrue(request.getCouponCode());
+            Optional<Coupon> couponOpt = couponCache.findValid(request.getCouponCode());
             if (couponOpt.isPresent()) {
                 Coupon coupon = couponOpt.get();
-                discountAmount = totalWithTax.multiply(coupon.getDiscountPercent())
-                    .divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
+                discountAmount = PricingEngine.discount(totalWithTax,
+                    PricingEngine.toBasisPoints(coupon.getDiscountPercent()));
                 couponCode = coupon.getCode();
             }
         }
         
-        BigDecimal finalTotal = totalWithTax.subtract(discountAmount);
+        long finalTotal = totalWithTax - discountAmount;
         
         // Create sale
         Sale sale = new Sale();
         sale.setEmployee(employee);
-        sale.setTotalAmount(subtotal);
-        sale.setTaxAmount(taxAmount);
-        sale.setDiscountAmount(discountAmount);
-        sale.setFinalTotal(finalTotal);
+        sale.setTotalAmount(PricingEngine.toAmount(subtotal));
+        sale.setTaxAmount(PricingEngine.toAmount(taxAmount));
+        sale.setDiscountAmount(PricingEngine.toAmount(discountAmount));
+        sale.setFinalTotal(PricingEngine.toAmount(finalTotal));
         sale.setCouponCode(couponCode);
         
-        sale = saleRepository.save(sale);
-        
-        // Set sale reference and save sale items
         for (SaleItem saleItem : saleItems) {
             saleItem.setSale(sale);
-            saleItemRepository.save(saleItem);
         }
-        
         sale.setSaleItems(saleItems);
         return sale;
     }
     
-    public List<Sale> getSalesByEmployee(UUID employeeId) {
-        return saleRepository.findByEmployeeId(employeeId);
+    /**
+     * Resolves every item referenced by the given sales with a single query
+     */
+    public Map<Integer, Item> loadItems(List<SaleRequest> requests) {
+        Set<Integer> itemIds = new HashSet<>();
+        for (SaleRequest request : requests) {
+            for (SaleRequest.SaleItemRequest itemRequest : request.getItems()) {
+                itemIds.add(itemRequest.getItemId());
+            }
+        }
+        return loadItems(itemIds);
+    }
+    
+    private Map<Integer, Item> loadItems(Set<Integer> itemIds) {
+        Map<Integer, Item> itemsById = new HashMap<>();
+        for (Item item : itemRepository.findByItemIdIn(itemIds)) {
+            itemsById.put(item.getItemId(), item);
+        }
+        return itemsById;
     }
     
+    /**
+     * Returns one page of sales, newest first, optionally limited to an
+     * employee and a [from, to) date range. The cursor is the opaque
+     * nextCursor of the previous page, or null for the first page.
+     */
+    @Transactional(readOnly = true)
+    public SalePage getSales(UUID employeeId, LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        LocalDateTime afterDate = null;
+        UUID afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeCursor(cursor);
+            afterDate = LocalDateTime.parse(position[0]);
+            afterId = UUID.fromString(position[1]);
+        }
+        
+        // One extra row tells whether another page follows
+        List<Sale> sales = saleRepository.findPage(employeeId, from, to, afterDate, afterId, pageSize + 1);
+        String nextCursor = null;
+        if (sales.size() > pageSize) {
+            sales = sales.subList(0, pageSize);
+            Sale last = sales.get(pageSize - 1);
+            nextCursor = encodeCursor(last.getTransactionDate(), last.getId());
+        }
+        
+        List<SaleResponse> page = new ArrayList<>(sales.size());
+        for (Sale sale : sales) {
+            page.add(SaleResponse.from(sale));
+        }
+        return new SalePage(page, nextCursor);
+    }
+    
+    /**
+     * Hands every matching sale, newest first, to the consumer. Ids are
+     * read through a database cursor and the sales loaded with their lines
+     * in batches, each cleared from the persistence context once consumed
+     * so it does not grow with the export.
+     */
+    @Transactional(readOnly = true)
+    public void exportSales(UUID employeeId, LocalDateTime from, LocalDateTime to, Consumer<Sale> consumer) {
+        List<UUID> batch = new ArrayList<>(exportBatchSize);
+        try (Stream<UUID> saleIds = saleRepository.streamSaleIds(employeeId, from, to)) {
+            saleIds.forEach(saleId -> {
+                batch.add(saleId);
+                if (batch.size() == exportBatchSize) {
+                    exportBatch(batch, consumer);
+                    batch.clear();
+                }
+            });
+        }
+        exportBatch(batch, consumer);
+    }
+    
+    @Transactional(readOnly = true)
     public Optional<Sale> getSaleById(UUID saleId) {
         return saleRepository.findById(saleId);
     }
+    
+    private void exportBatch(List<UUID> saleIds, Consumer<Sale> consumer) {
+        if (saleIds.isEmpty()) {
+            return;
+        }
+        Map<UUID, Sale> salesById = new HashMap<>();
+        for (Sale sale : saleRepository.findWithLinesByIdIn(saleIds)) {
+            salesById.put(sale.getId(), sale);
+        }
+        for (UUID saleId : saleIds) {
+            Sale sale = salesById.get(saleId);
+            if (sale != null) {
+                consumer.accept(sale);
+            }
+        }
+        entityManager.clear();
+    }
+    
+    private String encodeCursor(LocalDateTime date, UUID id) {
+        String position = date + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
 }
 
@@ -0,0 +1,353 @@
+package com.sgtech.pos.service;
+
+import com.sgtech.pos.dto.RollupBackfillResponse;
+import com.sgtech.pos.model.Return;
+import com.sgtech.pos.model.Sale;
+import com.sgtech.pos.model.SaleItem;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps the daily, per-item and per-employee sales rollups current. Sale
+ * and return paths add their figures to the rollup rows inside their own
+ * transaction, so reports never have to aggregate raw history. The daily
+ * totals are spread over several slot rows per day to keep concurrent
+ * checkouts from queueing on a single row lock.
+ */
+@Service
+public class SalesRollupService {
+    
+    private static final Logger log = LoggerFactory.getLogger(SalesRollupService.class);
+    
+    private static final RollupTable DAILY = new RollupTable("daily_sales_rollup",
+        new String[] {"sale_date", "slot"},
+        new String[] {"transaction_count", "subtotal_amount", "tax_amount", "discount_amount", "final_amount",
+                      "return_count", "refund_amount"});
+    
+    private static final RollupTable ITEMS = new RollupTable("daily_item_sales_rollup",
+        new String[] {"sale_date", "item_id"},
+        new String[] {"quantity_sold", "revenue"});
+    
+    private static final RollupTable EMPLOYEES = new RollupTable("daily_employee_sales_rollup",
+        new String[] {"sale_date", "employee_id"},
+        new String[] {"transaction_count", "final_amount"});
+    
+    // Slots 0 and 1 of a day hold rebuilt sales and refunds respectively
+    private static final String BACKFILL_DAILY_SALES =
+        "INSERT INTO daily_sales_rollup (sale_date, slot, transaction_count, subtotal_amount, tax_amount, " +
+        "discount_amount, final_amount, return_count, refund_amount, updated_at) " +
+        "SELECT CAST(transaction_date AS DATE), 0, COUNT(*), SUM(total_amount), SUM(tax_amount), " +
+        "SUM(COALESCE(discount_amount, 0)), SUM(final_total), 0, 0, CURRENT_TIMESTAMP FROM sales " +
+        "WHERE transaction_date >= ? AND transaction_date < ? GROUP BY CAST(transaction_date AS DATE)";
+    
+    private static final String BACKFILL_DAILY_REFUNDS =
+        "INSERT INTO daily_sales_rollup (sale_date, slot, transaction_count, subtotal_amount, tax_amount, " +
+        "discount_amount, final_amount, return_count, refund_amount, updated_at) " +
+        "SELECT CAST(return_date AS DATE), 1, 0, 0, 0, 0, 0, COUNT(*), SUM(total_refund), CURRENT_TIMESTAMP " +
+        "FROM returns WHERE return_date >= ? AND return_date < ? GROUP BY CAST(return_date AS DATE)";
+    
+    private static final String BACKFILL_ITEMS =
+        "INSERT INTO daily_item_sales_rollup (sale_date, item_id, quantity_sold, revenue, updated_at) " +
+        "SELECT CAST(s.transaction_date AS DATE), si.item_id, SUM(si.quantity), SUM(si.subtotal), CURRENT_TIMESTAMP " +
+        "FROM sale_items si JOIN sales s ON s.id = si.sale_id " +
+        "WHERE s.transaction_date >= ? AND s.transaction_date < ? " +
+        "GROUP BY CAST(s.transaction_date AS DATE), si.item_id";
+    
+    private static final String BACKFILL_EMPLOYEES =
+        "INSERT INTO daily_employee_sales_rollup (sale_date, employee_id, transaction_count, final_amount, updated_at) " +
+        "SELECT CAST(transaction_date AS DATE), employee_id, COUNT(*), SUM(final_total), CURRENT_TIMESTAMP " +
+        "FROM sales WHERE transaction_date >= ? AND transaction_date < ? " +
+        "GROUP BY CAST(transaction_date AS DATE), employee_id";
+    
+    @Value("${pos.reports.daily-slots:16}")
+    private int dailySlots;
+    
+    @Value("${pos.reports.backfill.threads:4}")
+    private int backfillThreads;
+    
+    @Value("${pos.reports.backfill.chunk-days:7}")
+    private int chunkDays;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private boolean postgres;
+    
+    @PostConstruct
+    public void detectDatabase() {
+        String product = jdbcTemplate.execute(
+            (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        postgres = "PostgreSQL".equalsIgnoreCase(product);
+    }
+    
+    /**
+     * Adds the given sales to the rollups. Must run in the transaction
+     * that saved them so the rollups commit or roll back together with
+     * the sales.
+     */
+    public void recordSales(Collection<Sale> sales) {
+        if (sales.isEmpty()) {
+            return;
+        }
+        
+        // Sorted keys keep the row lock order the same for every writer
+        Map<LocalDate, Object[]> daily = new TreeMap<>();
+        Map<String, Object[]> items = new TreeMap<>();
+        Map<String, Object[]> employees = new TreeMap<>();
+        for (Sale sale : sales) {
+            LocalDate date = sale.getTransactionDate().toLocalDate();
+            BigDecimal discount = sale.getDiscountAmount() == null ? BigDecimal.ZERO : sale.getDiscountAmount();
+            add(daily.computeIfAbsent(date, d -> newRow(DAILY)),
+                1L, sale.getTotalAmount(), sale.getTaxAmount(), discount, sale.getFinalTotal(), 0L, BigDecimal.ZERO);
+            
+            UUID employeeId = sale.getEmployee().getId();
+            add(employees.computeIfAbsent(date + "|" + employeeId, k -> keyed(EMPLOYEES, date, employeeId)),
+                1L, sale.getFinalTotal());
+            
+            for (SaleItem saleItem : sale.getSaleItems()) {
+                UUID itemId = saleItem.getItem().getId();
+                add(items.computeIfAbsent(date + "|" + itemId, k -> keyed(ITEMS, date, itemId)),
+                    (long) saleItem.getQuantity(), saleItem.getSubtotal());
+            }
+        }
+        
+        List<Object[]> dailyRows = new ArrayList<>();
+        int slot = ThreadLocalRandom.current().nextInt(Math.max(dailySlots, 1));
+        for (Map.Entry<LocalDate, Object[]> entry : daily.entrySet()) {
+            Object[] row = entry.getValue();
+            row[0] = Date.valueOf(entry.getKey());
+            row[1] = slot;
+            dailyRows.add(row);
+        }
+        
+        upsert(DAILY, dailyRows);
+        upsert(ITEMS, new ArrayList<>(items.values()));
+        upsert(EMPLOYEES, new ArrayList<>(employees.values()));
+    }
+    
+    /**
+     * Adds a completed return's refund to the daily rollup, inside the
+     * return's transaction
+     */
+    public void recordReturn(Return returnEntity) {
+        Object[] row = newRow(DAILY);
+        row[0] = Date.valueOf(returnEntity.getReturnDate().toLocalDate());
+        row[1] = ThreadLocalRandom.current().nextInt(Math.max(dailySlots, 1));
+        add(row, 0L, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, 1L,
+            returnEntity.getTotalRefund());
+        upsert(DAILY, List.<Object[]>of(row));
+    }
+    
+    /**
+     * Rebuilds the rollups for [from, to) from the raw sales and returns
+     * tables, or for the whole history when either bound is null. The
+     * range is split into chunks of days that are rebuilt in parallel,
+     * each in its own transaction. Sales committed while a chunk is being
+     * rebuilt can be missed, so rebuild days that are still trading
+     * outside of opening hours.
+     */
+    public RollupBackfillResponse rebuild(LocalDate from, LocalDate to) {
+        long started = System.currentTimeMillis();
+        if (from == null || to == null) {
+            LocalDate[] range = historyRange();
+            if (range == null) {
+                return new RollupBackfillResponse(0, 0, System.currentTimeMillis() - started);
+            }
+            from = from == null ? range[0] : from;
+            to = to == null ? range[1].plusDays(1) : to;
+        }
+        
+        List<LocalDate[]> chunks = new ArrayList<>();
+        for (LocalDate start = from; start.isBefore(to); start = start.plusDays(Math.max(chunkDays, 1))) {
+            LocalDate end = start.plusDays(Math.max(chunkDays, 1));
+            chunks.add(new LocalDate[] {start, end.isAfter(to) ? to : end});
+        }
+        
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(backfillThreads, chunks.size())));
+        try {
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            List<Future<?>> futures = new ArrayList<>();
+            for (LocalDate[] chunk : chunks) {
+                futures.add(executor.submit(() -> tx.executeWithoutResult(status -> rebuildChunk(chunk[0], chunk[1]))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Rollup rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Rollup rebuild failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        long days = to.toEpochDay() - from.toEpochDay();
+        long elapsed = System.currentTimeMillis() - started;
+        log.info("Rebuilt sales rollups for {} days in {} chunks in {} ms", days, chunks.size(), elapsed);
+        return new RollupBackfillResponse(days, chunks.size(), elapsed);
+    }
+    
+    private void rebuildChunk(LocalDate from, LocalDate to) {
+        Date fromDate = Date.valueOf(from);
+        Date toDate = Date.valueOf(to);
+        for (RollupTable table : new RollupTable[] {DAILY, ITEMS, EMPLOYEES}) {
+            jdbcTemplate.update("DELETE FROM " + table.name + " WHERE sale_date >= ? AND sale_date < ?",
+                fromDate, toDate);
+        }
+        
+        Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(to.atStartOfDay());
+        jdbcTemplate.update(BACKFILL_DAILY_SALES, start, end);
+        jdbcTemplate.update(BACKFILL_DAILY_REFUNDS, start, end);
+        jdbcTemplate.update(BACKFILL_ITEMS, start, end);
+        jdbcTemplate.update(BACKFILL_EMPLOYEES, start, end);
+    }
+    
+    private LocalDate[] historyRange() {
+        Timestamp[] sales = jdbcTemplate.queryForObject(
+            "SELECT MIN(transaction_date), MAX(transaction_date) FROM sales",
+            (rs, n) -> new Timestamp[] {rs.getTimestamp(1), rs.getTimestamp(2)});
+        Timestamp[] returns = jdbcTemplate.queryForObject(
+            "SELECT MIN(return_date), MAX(return_date) FROM returns",
+            (rs, n) -> new Timestamp[] {rs.getTimestamp(1), rs.getTimestamp(2)});
+        
+        LocalDate first = null;
+        LocalDate last = null;
+        for (Timestamp[] range : new Timestamp[][] {sales, returns}) {
+            if (range == null || range[0] == null) {
+                continue;
+            }
+            LocalDate min = range[0].toLocalDateTime().toLocalDate();
+            LocalDate max = range[1].toLocalDateTime().toLocalDate();
+            first = first == null || min.isBefore(first) ? min : first;
+            last = last == null || max.isAfter(last) ? max : last;
+        }
+        return first == null ? null : new LocalDate[] {first, last};
+    }
+    
+    private void upsert(RollupTable table, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        if (postgres) {
+            jdbcTemplate.batchUpdate(table.upsertSql, rows);
+            return;
+        }
+        
+        // Without ON CONFLICT: add to existing rows, then insert the rest
+        List<Object[]> updateArgs = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            updateArgs.add(table.updateArgs(row));
+        }
+        int[] updated = jdbcTemplate.batchUpdate(table.updateSql, updateArgs);
+        List<Object[]> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(rows.get(i));
+            }
+        }
+        // Inserted one by one: a concurrent transaction may insert the same
+        // row first, and this one then adds to it instead. A failed batch
+        // would leave it unknown which rows had gone in.
+        for (Object[] row : missing) {
+            try {
+                jdbcTemplate.update(table.insertSql, row);
+            } catch (DuplicateKeyException e) {
+                jdbcTemplate.update(table.updateSql, table.updateArgs(row));
+            }
+        }
+    }
+    
+    private static Object[] newRow(RollupTable table) {
+        return new Object[table.keys.length + table.counters.length];
+    }
+    
+    private static Object[] keyed(RollupTable table, LocalDate date, UUID id) {
+        Object[] row = newRow(table);
+        row[0] = Date.valueOf(date);
+        row[1] = id;
+        return row;
+    }
+    
+    // Rows are laid out as the key columns followed by the counters
+    private static void add(Object[] row, Object... counters) {
+        int offset = row.length - counters.length;
+        for (int i = 0; i < counters.length; i++) {
+            Object value = counters[i];
+            int index = i + offset;
+            if (value instanceof Long) {
+                row[index] = (row[index] == null ? 0L : (Long) row[index]) + (Long) value;
+            } else if (value instanceof BigDecimal) {
+                row[index] = (row[index] == null ? BigDecimal.ZERO : (BigDecimal) row[index]).add((BigDecimal) value);
+            }
+        }
+    }
+    
+    private static final class RollupTable {
+        final String name;
+        final String[] keys;
+        final String[] counters;
+        final String upsertSql;
+        final String updateSql;
+        final String insertSql;
+        
+        RollupTable(String name, String[] keys, String[] counters) {
+            this.name = name;
+            this.keys = keys;
+            this.counters = counters;
+            
+            String columns = String.join(", ", keys) + ", " + String.join(", ", counters) + ", updated_at";
+            String placeholders = "?, ".repeat(keys.length + counters.length) + "CURRENT_TIMESTAMP";
+            this.insertSql = "INSERT INTO " + name + " (" + columns + ") VALUES (" + placeholders + ")";
+            
+            StringBuilder increments = new StringBuilder();
+            StringBuilder excluded = new StringBuilder();
+            for (String counter : counters) {
+                increments.append(counter).append(" = ").append(counter).append(" + ?, ");
+                excluded.append(counter).append(" = ").append(name).append('.').append(counter)
+                    .append(" + EXCLUDED.").append(counter).append(", ");
+            }
+            this.updateSql = "UPDATE " + name + " SET " + increments + "updated_at = CURRENT_TIMESTAMP WHERE "
+                + String.join(" = ? AND ", keys) + " = ?";
+            this.upsertSql = insertSql + " ON CONFLICT (" + String.join(", ", keys) + ") DO UPDATE SET "
+                + excluded + "updated_at = EXCLUDED.updated_at";
+        }
+        
+        // UPDATE takes the counters first and the keys in the WHERE clause
+        Object[] updateArgs(Object[] row) {
+            Object[] args = new Object[row.length];
+            System.arraycopy(row, keys.length, args, 0, counters.length);
+            System.arraycopy(row, 0, args, counters.length, keys.length);
+            return args;
+        }
+    }
+}
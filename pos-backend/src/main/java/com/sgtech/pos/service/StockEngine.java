@@ -0,0 +1,34 @@
+package com.sgtech.pos.service;
+
+import com.sgtech.pos.model.Item;
+
+import java.util.Map;
+
+/**
+ * Applies stock movements for the sale, rental, return and inventory paths.
+ * The implementation is chosen with the pos.inventory.engine property:
+ * "database" (default) updates items.quantity directly, "ledger" reserves
+ * stock in memory and writes the net changes back in periodic batches.
+ */
+public interface StockEngine {
+    
+    /**
+     * Quantity that can currently be taken for the given item
+     */
+    int available(Item item);
+    
+    /**
+     * Takes stock for every given item, or none of them if any is short
+     */
+    void take(Map<Item, Integer> quantities);
+    
+    /**
+     * Puts stock back, e.g. for returned rentals
+     */
+    void restore(Map<Item, Integer> quantities);
+    
+    /**
+     * Overwrites the stock level of an item, e.g. after a stock count
+     */
+    Item setQuantity(Item item, int quantity);
+}
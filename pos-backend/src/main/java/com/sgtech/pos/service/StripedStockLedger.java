@@ -0,0 +1,304 @@
+package com.sgtech.pos.service;
+
+import com.sgtech.pos.model.Item;
+import com.sgtech.pos.repository.ItemRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory stock ledger for hot items. Stock is reserved against
+ * per-item counters guarded by striped locks, so checkouts never wait on
+ * a database row lock. The net change of every item is written back to
+ * items.quantity in periodic batches, and the counters are rebuilt from
+ * the database on startup.
+ */
+@Service
+@ConditionalOnProperty(name = "pos.inventory.engine", havingValue = "ledger")
+public class StripedStockLedger implements StockEngine {
+    
+    private static final Logger log = LoggerFactory.getLogger(StripedStockLedger.class);
+    
+    private static final int STRIPES = 64;
+    
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    
+    // Serializes write-back against absolute quantity changes
+    private final ReentrantLock flushLock = new ReentrantLock();
+    
+    private final Map<UUID, Counter> counters = new ConcurrentHashMap<>();
+    
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    
+    @Autowired
+    private ItemRepository itemRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    public StripedStockLedger() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+    
+    @PostConstruct
+    public void rebuild() {
+        flushLock.lock();
+        try {
+            counters.clear();
+            dirty.clear();
+            jdbcTemplate.query("SELECT id, quantity FROM items", rs -> {
+                counters.put(rs.getObject("id", UUID.class), new Counter(rs.getInt("quantity")));
+            });
+            log.info("Stock ledger loaded {} items", counters.size());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+    
+    @Override
+    public int available(Item item) {
+        ReentrantLock lock = stripeFor(item.getId());
+        lock.lock();
+        try {
+            return counterFor(item).available;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public void take(Map<Item, Integer> quantities) {
+        ReentrantLock[] locks = lockStripes(quantities);
+        try {
+            for (Map.Entry<Item, Integer> entry : quantities.entrySet()) {
+                if (counterFor(entry.getKey()).available < entry.getValue()) {
+                    throw new RuntimeException("Insufficient inventory for item: " + entry.getKey().getName());
+                }
+            }
+            apply(quantities, -1);
+        } finally {
+            unlock(locks);
+        }
+        undoOnRollback(quantities, 1);
+    }
+    
+    @Override
+    public void restore(Map<Item, Integer> quantities) {
+        ReentrantLock[] locks = lockStripes(quantities);
+        try {
+            apply(quantities, 1);
+        } finally {
+            unlock(locks);
+        }
+        undoOnRollback(quantities, -1);
+    }
+    
+    @Override
+    public Item setQuantity(Item item, int quantity) {
+        flushLock.lock();
+        try {
+            ReentrantLock lock = stripeFor(item.getId());
+            lock.lock();
+            try {
+                // The absolute value replaces anything not yet written back
+                Counter counter = counterFor(item);
+                counter.available = quantity;
+                counter.pending = 0;
+                dirty.remove(item.getId());
+            } finally {
+                lock.unlock();
+            }
+            
+            item.setQuantity(quantity);
+            Item saved = itemRepository.save(item);
+            reloadOnRollback(item.getId());
+            return saved;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+    
+    /**
+     * Writes the accumulated net change of every touched item back to the
+     * database in one batch. Deltas that fail to write are kept for the
+     * next run.
+     */
+    @Scheduled(fixedDelayString = "${pos.inventory.ledger.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<UUID, Integer> deltas = new HashMap<>();
+            for (UUID id : dirty) {
+                dirty.remove(id);
+                ReentrantLock lock = stripeFor(id);
+                lock.lock();
+                try {
+                    Counter counter = counters.get(id);
+                    if (counter != null && counter.pending != 0) {
+                        deltas.put(id, counter.pending);
+                        counter.pending = 0;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+            
+            if (deltas.isEmpty()) {
+                return;
+            }
+            
+            try {
+                new TransactionTemplate(transactionManager)
+                    .executeWithoutResult(status -> itemRepository.applyStockDeltas(deltas));
+            } catch (RuntimeException e) {
+                log.warn("Stock ledger write-back failed, will retry: {}", e.getMessage());
+                for (Map.Entry<UUID, Integer> entry : deltas.entrySet()) {
+                    adjust(entry.getKey(), 0, entry.getValue());
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+    
+    private Counter counterFor(Item item) {
+        // Items created after startup have no pending changes yet, so the
+        // freshly loaded entity holds the authoritative quantity
+        return counters.computeIfAbsent(item.getId(), id -> new Counter(item.getQuantity()));
+    }
+    
+    private void apply(Map<Item, Integer> quantities, int sign) {
+        for (Map.Entry<Item, Integer> entry : quantities.entrySet()) {
+            Counter counter = counterFor(entry.getKey());
+            counter.available += sign * entry.getValue();
+            counter.pending += sign * entry.getValue();
+            dirty.add(entry.getKey().getId());
+        }
+    }
+    
+    private void adjust(UUID id, int availableDelta, int pendingDelta) {
+        ReentrantLock lock = stripeFor(id);
+        lock.lock();
+        try {
+            Counter counter = counters.get(id);
+            if (counter != null) {
+                counter.available += availableDelta;
+                counter.pending += pendingDelta;
+                dirty.add(id);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void undoOnRollback(Map<Item, Integer> quantities, int sign) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        
+        Map<UUID, Integer> changes = new HashMap<>();
+        for (Map.Entry<Item, Integer> entry : quantities.entrySet()) {
+            changes.merge(entry.getKey().getId(), entry.getValue(), Integer::sum);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    for (Map.Entry<UUID, Integer> change : changes.entrySet()) {
+                        int delta = sign * change.getValue();
+                        adjust(change.getKey(), delta, delta);
+                    }
+                }
+            }
+        });
+    }
+    
+    private void reloadOnRollback(UUID id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    return;
+                }
+                Integer stored = jdbcTemplate.queryForObject(
+                    "SELECT quantity FROM items WHERE id = ?", Integer.class, id);
+                ReentrantLock lock = stripeFor(id);
+                lock.lock();
+                try {
+                    Counter counter = counters.get(id);
+                    if (counter != null && stored != null) {
+                        counter.available = stored + counter.pending;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+    }
+    
+    private ReentrantLock stripeFor(UUID id) {
+        return stripes[(id.hashCode() & 0x7fffffff) % STRIPES];
+    }
+    
+    // Stripes are always taken in index order so two baskets sharing
+    // items cannot deadlock
+    private ReentrantLock[] lockStripes(Map<Item, Integer> quantities) {
+        TreeMap<Integer, ReentrantLock> ordered = new TreeMap<>();
+        for (Item item : quantities.keySet()) {
+            int index = (item.getId().hashCode() & 0x7fffffff) % STRIPES;
+            ordered.put(index, stripes[index]);
+        }
+        ReentrantLock[] locks = ordered.values().toArray(new ReentrantLock[0]);
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+        return locks;
+    }
+    
+    private void unlock(ReentrantLock[] locks) {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+    
+    private static final class Counter {
+        int available;
+        int pending;
+        
+        Counter(int available) {
+            this.available = available;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.sgtech.pos.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings. A negative answer is definite, a
+ * positive one may be wrong with roughly the false positive rate it was
+ * sized for. Adding and querying are safe from several threads.
+ */
+public class BloomFilter {
+    
+    private final AtomicLongArray bits;
+    private final int bitCount;
+    private final int hashCount;
+    
+    public BloomFilter(int expectedEntries, double falsePositiveRate) {
+        int n = Math.max(expectedEntries, 1);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.min(Math.max(m, 64), Integer.MAX_VALUE - 63);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        this.bits = new AtomicLongArray((bitCount + 63) / 64);
+    }
+    
+    public void add(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = index(h1 + i * h2);
+            long mask = 1L << (bit & 63);
+            int word = bit >>> 6;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+    
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = index(h1 + i * h2);
+            if ((bits.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private int index(int combined) {
+        return (combined & Integer.MAX_VALUE) % bitCount;
+    }
+    
+    // 64-bit FNV-1a with a final mix; the two halves drive double hashing
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
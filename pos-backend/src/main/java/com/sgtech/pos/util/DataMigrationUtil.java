@@ -2,6 +2,9 @@ package com.sgtech.pos.util;
 
 import com.sgtech.pos.model.*;
 import com.sgtech.pos.repository.*;
+import com.sgtech.pos.service.CouponCache;
+import com.sgtech.pos.service.CouponService;
+import com.sgtech.pos.service.InventoryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,13 +27,16 @@ public class DataMigrationUtil {
     private EmployeeRepository employeeRepository;
     
     @Autowired
-    private ItemRepository itemRepository;
+    private InventoryService inventoryService;
     
     @Autowired
     private CustomerRepository customerRepository;
     
     @Autowired
-    private CouponRepository couponRepository;
+    private CouponService couponService;
+    
+    @Autowired
+    private CouponCache couponCache;
     
     private org.springframework.security.crypto.password.PasswordEncoder passwordEncoder = 
         new org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder();
@@ -75,7 +81,7 @@ public class DataMigrationUtil {
                     Integer quantity = Integer.parseInt(parts[3]);
                     
                     Item item = new Item(itemId, name, price, quantity);
-                    itemRepository.save(item);
+                    inventoryService.addItem(item);
                 }
             }
         }
@@ -93,7 +99,7 @@ public class DataMigrationUtil {
                 BigDecimal discountPercent = new BigDecimal("10.00");
                 
                 Coupon coupon = new Coupon(code, discountPercent);
-                couponRepository.save(coupon);
+                couponService.save(coupon);
             }
         }
     }
@@ -109,6 +115,8 @@ public class DataMigrationUtil {
         
         System.out.println("Migrating coupons...");
         migrateCoupons(databasePath + "/couponNumber.txt");
+        // Resize the coupon filter for the imported codes
+        couponCache.refresh();
         
         System.out.println("Data migration completed!");
     }
@@ -0,0 +1,65 @@
+package com.sgtech.pos.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Writes list responses element by element through one JSON generator on
+ * the servlet output stream, so a large result never has to exist as a
+ * second list of response objects or as one serialized buffer.
+ */
+@Component
+public class JsonStreamWriter {
+    
+    public static final String NDJSON = "application/x-ndjson";
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Resolved once per element type instead of on every write
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+    
+    public <T, R> void writeArray(HttpServletResponse response, Iterable<T> rows,
+                                  Class<R> type, Function<T, R> mapper) throws IOException {
+        ObjectWriter writer = writerFor(type);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.writeStartArray();
+            for (T row : rows) {
+                writer.writeValue(generator, mapper.apply(row));
+            }
+            generator.writeEndArray();
+        }
+    }
+    
+    /**
+     * Opens a newline-delimited JSON stream on the response. Every value
+     * written to the returned writer becomes one line; closing it ends
+     * the response body.
+     */
+    public SequenceWriter openLines(HttpServletResponse response, Class<?> type) throws IOException {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        return writerFor(type)
+            .withRootValueSeparator("\n")
+            .writeValues(response.getOutputStream());
+    }
+    
+    private ObjectWriter writerFor(Class<?> type) {
+        return writers.computeIfAbsent(type, t -> objectMapper.writerFor(t)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE));
+    }
+}
@@ -0,0 +1,50 @@
+package com.sgtech.pos.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size buffer of the most recent values. Writers claim a slot with
+ * one atomic increment and never wait for each other or for readers; once
+ * the buffer is full each new value replaces the oldest one. Values must
+ * be immutable, since readers may see a slot while it is being reused.
+ */
+public class RingBuffer<T> {
+    
+    private final AtomicReferenceArray<T> slots;
+    private final int mask;
+    private final AtomicLong next = new AtomicLong();
+    
+    public RingBuffer(int capacity) {
+        // Rounded up to a power of two so the slot is a mask, not a division
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+    
+    public void add(T value) {
+        slots.set((int) (next.getAndIncrement() & mask), value);
+    }
+    
+    /**
+     * Values currently held, oldest first
+     */
+    public List<T> snapshot() {
+        long end = next.get();
+        long start = Math.max(0, end - slots.length());
+        List<T> values = new ArrayList<>((int) (end - start));
+        for (long i = start; i < end; i++) {
+            T value = slots.get((int) (i & mask));
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+    
+    public int capacity() {
+        return slots.length();
+    }
+}
@@ -0,0 +1,56 @@
+package com.sgtech.pos.util;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Set of open Server-Sent Events connections that all receive the same
+ * events. Payloads are passed in already serialized so a broadcast costs
+ * one serialization however many clients are connected.
+ */
+public class SseBroadcaster {
+    
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final long timeoutMillis;
+    
+    public SseBroadcaster(Duration timeout) {
+        this.timeoutMillis = timeout.toMillis();
+    }
+    
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> emitters.remove(emitter));
+        emitters.add(emitter);
+        return emitter;
+    }
+    
+    public void broadcast(String eventName, String json) {
+        for (SseEmitter emitter : emitters) {
+            send(emitter, eventName, json);
+        }
+    }
+    
+    public void send(SseEmitter emitter, String eventName, String json) {
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(json, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the container completes the emitter
+            emitters.remove(emitter);
+        }
+    }
+    
+    public boolean isEmpty() {
+        return emitters.isEmpty();
+    }
+    
+    public int size() {
+        return emitters.size();
+    }
+}
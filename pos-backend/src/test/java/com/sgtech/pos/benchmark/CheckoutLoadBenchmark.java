@@ -0,0 +1,202 @@
+package com.sgtech.pos.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgtech.pos.PosApplication;
+import com.sgtech.pos.model.Employee;
+import com.sgtech.pos.model.Item;
+import com.sgtech.pos.repository.EmployeeRepository;
+import com.sgtech.pos.repository.ItemRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simulated registers posting checkouts against a running backend, once
+ * per thread model and concurrency level. Each register sends a sale,
+ * waits for the answer and sends the next one.
+ *
+ * Run the main method with the test classpath. The optional arguments
+ * are the thread modes (platform, virtual), the seconds per run and the
+ * JDBC pool size, for example {@code platform,virtual 20 20}. Virtual
+ * threads need Java 21; on older JVMs the virtual mode is skipped rather
+ * than measured on platform threads under its name. Without further configuration the
+ * backend uses the in-memory H2 test database; pass
+ * {@code --spring.datasource.url=...} style system properties to point it
+ * at Postgres.
+ */
+public class CheckoutLoadBenchmark {
+
+    private static final int[] REGISTERS = {50, 200, 1000};
+    private static final int FIRST_ITEM_ID = 90000;
+    private static final int ITEMS = 1000;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        String[] modes = args.length > 0 ? args[0].split(",") : new String[] {"platform", "virtual"};
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int poolSize = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        List<String> report = new ArrayList<>();
+        for (String mode : modes) {
+            if ("virtual".equals(mode) && !JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+                report.add(String.format("%-8s skipped, Java %s has no virtual threads", mode, JavaVersion.getJavaVersion()));
+                continue;
+            }
+            try (ConfigurableApplicationContext context = start("virtual".equals(mode), poolSize)) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                Employee employee = seed(context);
+                String token = login(port);
+                for (int registers : REGISTERS) {
+                    Result result = run(port, token, employee, registers, Duration.ofSeconds(seconds));
+                    report.add(String.format("%-8s %6d %10.1f %9.1f %9.1f %8d",
+                        mode, registers, result.throughput, result.p50Millis, result.p99Millis, result.errors));
+                }
+            }
+        }
+
+        System.out.println();
+        System.out.println("mode     registers  sales/s   p50 ms    p99 ms    errors");
+        report.forEach(System.out::println);
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtual, int poolSize) {
+        return new SpringApplicationBuilder(PosApplication.class)
+            .profiles("test")
+            .run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "--spring.datasource.hikari.minimum-idle=" + poolSize,
+                "--server.tomcat.threads.max=200",
+                "--logging.level.root=WARN");
+    }
+
+    private static Employee seed(ConfigurableApplicationContext context) {
+        PasswordEncoder passwordEncoder = context.getBean(PasswordEncoder.class);
+        Employee employee = context.getBean(EmployeeRepository.class).save(
+            new Employee("loadtest", "Load", "Test", "Cashier", passwordEncoder.encode("loadtest")));
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new Item(FIRST_ITEM_ID + i, "Load Test Item " + i, new BigDecimal("1.99"), 1_000_000));
+        }
+        context.getBean(ItemRepository.class).saveAll(items);
+        return employee;
+    }
+
+    private static String login(int port) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(base(port) + "/api/auth/login"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"loadtest\",\"password\":\"loadtest\"}"))
+            .build(), HttpResponse.BodyHandlers.ofString());
+        JsonNode body = objectMapper.readTree(response.body());
+        return body.get("token").asText();
+    }
+
+    private static Result run(int port, String token, Employee employee, int registers, Duration duration)
+            throws Exception {
+        // The client keeps its own executor; sharing the register threads
+        // would leave no thread to complete the responses they wait on
+        ExecutorService clients = Executors.newFixedThreadPool(registers);
+        HttpClient client = HttpClient.newHttpClient();
+
+        long[][] latencies = new long[registers][];
+        int[] counts = new int[registers];
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(registers);
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        for (int r = 0; r < registers; r++) {
+            int register = r;
+            latencies[r] = new long[1024];
+            // Registers ring up different items so the run measures request
+            // handling rather than contention on one stock row
+            HttpRequest request = HttpRequest.newBuilder(URI.create(base(port) + "/api/sales"))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + token)
+                .header("X-Employee-Id", employee.getId().toString())
+                .POST(HttpRequest.BodyPublishers.ofString(
+                    "{\"items\":[{\"itemId\":" + (FIRST_ITEM_ID + r % ITEMS) + ",\"quantity\":1}]}"))
+                .build();
+            clients.execute(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        long elapsed = System.nanoTime() - start;
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (counts[register] == latencies[register].length) {
+                            latencies[register] = Arrays.copyOf(latencies[register], counts[register] * 2);
+                        }
+                        latencies[register][counts[register]++] = elapsed;
+                    }
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        done.await();
+        clients.shutdown();
+
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (int r = 0; r < registers; r++) {
+            System.arraycopy(latencies[r], 0, all, offset, counts[r]);
+            offset += counts[r];
+        }
+        Arrays.sort(all);
+
+        Result result = new Result();
+        result.throughput = total / (double) duration.toSeconds();
+        result.p50Millis = percentile(all, 0.50) / 1_000_000.0;
+        result.p99Millis = percentile(all, 0.99) / 1_000_000.0;
+        result.errors = errors.get();
+        return result;
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(fraction * sorted.length) - 1)];
+    }
+
+    private static String base(int port) {
+        return "http://localhost:" + port;
+    }
+
+    private static class Result {
+        double throughput;
+        double p50Millis;
+        double p99Millis;
+        long errors;
+    }
+}
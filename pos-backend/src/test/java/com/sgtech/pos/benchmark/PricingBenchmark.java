@@ -0,0 +1,94 @@
+package com.sgtech.pos.benchmark;
+
+import com.sgtech.pos.service.PricingEngine;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prices one basket per invocation, once with the former BigDecimal
+ * arithmetic and once with {@link PricingEngine}. Run with
+ * {@code mvn test-compile} followed by the main method of this class;
+ * the GC profiler reports allocation per operation (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+
+    private static final BigDecimal TAX_RATE = new BigDecimal("0.06");
+
+    @Param({"5", "40"})
+    private int lines;
+
+    private BigDecimal[] prices;
+    private int[] quantities;
+    private BigDecimal discountPercent;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        prices = new BigDecimal[lines];
+        quantities = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            prices[i] = BigDecimal.valueOf(random.nextInt(10000), 2);
+            quantities[i] = 1 + random.nextInt(5);
+        }
+        discountPercent = new BigDecimal("10.00");
+    }
+
+    @Benchmark
+    public void bigDecimal(Blackhole blackhole) {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            BigDecimal lineTotal = prices[i].multiply(BigDecimal.valueOf(quantities[i]));
+            blackhole.consume(lineTotal);
+            subtotal = subtotal.add(lineTotal);
+        }
+        BigDecimal tax = subtotal.multiply(TAX_RATE).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal totalWithTax = subtotal.add(tax);
+        BigDecimal discount = totalWithTax.multiply(discountPercent)
+            .divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
+        blackhole.consume(subtotal);
+        blackhole.consume(tax);
+        blackhole.consume(discount);
+        blackhole.consume(totalWithTax.subtract(discount));
+    }
+
+    @Benchmark
+    public void fixedPoint(Blackhole blackhole) {
+        long subtotal = 0;
+        for (int i = 0; i < lines; i++) {
+            long lineTotal = PricingEngine.lineTotal(PricingEngine.toCents(prices[i]), quantities[i]);
+            // Line subtotals are still stored as BigDecimal
+            blackhole.consume(PricingEngine.toAmount(lineTotal));
+            subtotal += lineTotal;
+        }
+        long tax = PricingEngine.tax(subtotal);
+        long discount = PricingEngine.discount(subtotal + tax, PricingEngine.toBasisPoints(discountPercent));
+        blackhole.consume(PricingEngine.toAmount(subtotal));
+        blackhole.consume(PricingEngine.toAmount(tax));
+        blackhole.consume(PricingEngine.toAmount(discount));
+        blackhole.consume(PricingEngine.toAmount(subtotal + tax - discount));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(PricingBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
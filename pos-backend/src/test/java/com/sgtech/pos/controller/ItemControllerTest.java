@@ -0,0 +1,94 @@
+package com.sgtech.pos.controller;
+
+import com.sgtech.pos.model.Item;
+import com.sgtech.pos.repository.ItemRepository;
+import com.sgtech.pos.service.InventoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Item changes only mark the catalog stale after commit, so this runs
+ * without a test transaction and cleans up after itself.
+ */
+@SpringBootTest(properties = "pos.catalog.min-rebuild-interval=PT0S")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser
+public class ItemControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @SpyBean
+    private ItemRepository itemRepository;
+
+    private Item item;
+
+    @BeforeEach
+    public void setUp() {
+        item = itemRepository.save(new Item(9951, "Catalog Item", new BigDecimal("7.50"), 12));
+        // Direct repository writes bypass the change hooks
+        inventoryService.updateItemQuantity(item.getId(), 12);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        itemRepository.deleteById(item.getId());
+    }
+
+    @Test
+    public void testUnchangedCatalogAnswersNotModified() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/items"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(content().string(containsString("\"itemId\":9951")))
+                .andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+
+        clearInvocations(itemRepository);
+        mockMvc.perform(get("/api/items").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        // Both catalog endpoints serve the same snapshot
+        mockMvc.perform(get("/api/inventory/items").header("If-None-Match", "\"other\", " + etag))
+                .andExpect(status().isNotModified());
+        verify(itemRepository, never()).findAll();
+    }
+
+    @Test
+    public void testItemChangeProducesNewVersion() throws Exception {
+        String etag = mockMvc.perform(get("/api/inventory/items"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        inventoryService.updateItemQuantityByItemId(9951, 3);
+
+        MvcResult changed = mockMvc.perform(get("/api/items").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"itemId\":9951,\"name\":\"Catalog Item\",\"price\":7.50,\"quantity\":3")))
+                .andReturn();
+        assertNotEquals(etag, changed.getResponse().getHeader("ETag"));
+    }
+}
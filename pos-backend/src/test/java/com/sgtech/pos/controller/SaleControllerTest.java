@@ -0,0 +1,206 @@
+package com.sgtech.pos.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgtech.pos.dto.SaleRequest;
+import com.sgtech.pos.model.Employee;
+import com.sgtech.pos.model.Item;
+import com.sgtech.pos.repository.EmployeeRepository;
+import com.sgtech.pos.repository.ItemRepository;
+import com.sgtech.pos.repository.SaleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@WithMockUser
+public class SaleControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setUp() {
+        employee = employeeRepository.save(
+            new Employee("register1", "Reg", "Ister", "Cashier", "not-a-real-hash"));
+        itemRepository.save(new Item(6001, "Retry Item", new BigDecimal("3.00"), 10));
+    }
+
+    @Test
+    public void testReplayedSaleIsNotProcessedTwice() throws Exception {
+        String body = objectMapper.writeValueAsString(saleRequest(2));
+
+        mockMvc.perform(post("/api/sales")
+                .header("X-Employee-Id", employee.getId())
+                .header("Idempotency-Key", "checkout-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/sales")
+                .header("X-Employee-Id", employee.getId())
+                .header("Idempotency-Key", "checkout-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"));
+
+        assertEquals(1, saleRepository.findByEmployeeId(employee.getId()).size());
+        assertEquals(8, itemRepository.findByItemId(6001).orElseThrow().getQuantity());
+    }
+
+    @Test
+    public void testKeyReusedForDifferentSaleIsRejected() throws Exception {
+        mockMvc.perform(post("/api/sales")
+                .header("X-Employee-Id", employee.getId())
+                .header("Idempotency-Key", "checkout-43")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(saleRequest(1))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/sales")
+                .header("X-Employee-Id", employee.getId())
+                .header("Idempotency-Key", "checkout-43")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(saleRequest(3))))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    public void testSalesWithoutKeyAreProcessedEachTime() throws Exception {
+        String body = objectMapper.writeValueAsString(saleRequest(1));
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/sales")
+                    .header("X-Employee-Id", employee.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body))
+                    .andExpect(status().isOk());
+        }
+
+        assertEquals(2, saleRepository.findByEmployeeId(employee.getId()).size());
+    }
+
+    @Test
+    public void testSaleResponseIsFlattened() throws Exception {
+        mockMvc.perform(post("/api/sales")
+                .header("X-Employee-Id", employee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(saleRequest(2))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.employeeId").value(employee.getId().toString()))
+                .andExpect(jsonPath("$.employee").doesNotExist())
+                .andExpect(jsonPath("$.finalTotal").value(6.36))
+                .andExpect(jsonPath("$.lines[0].itemId").value(6001))
+                .andExpect(jsonPath("$.lines[0].name").value("Retry Item"))
+                .andExpect(jsonPath("$.lines[0].sale").doesNotExist());
+    }
+
+    @Test
+    public void testSalesByEmployeeArePagedByCursor() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            createSale(1);
+        }
+
+        Set<String> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MvcResult result = mockMvc.perform(get("/api/sales/employee/" + employee.getId())
+                    .param("limit", "2")
+                    .param("cursor", cursor == null ? "" : cursor))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(not(containsString("passwordHash"))))
+                    .andReturn();
+            JsonNode page = objectMapper.readTree(result.getResponse().getContentAsString());
+            for (JsonNode sale : page.get("sales")) {
+                assertTrue(seen.add(sale.get("id").asText()), "sale returned twice");
+                assertEquals(1, sale.get("lines").size());
+            }
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(5, seen.size());
+        assertEquals(3, pages);
+    }
+
+    @Test
+    public void testInvalidCursorIsRejected() throws Exception {
+        mockMvc.perform(get("/api/sales").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testSalesExportIsNewlineDelimited() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            createSale(i);
+        }
+
+        MvcResult result = mockMvc.perform(get("/api/sales/export")
+                .param("employeeId", employee.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().trim().split("\n");
+        assertEquals(3, lines.length);
+        Set<Integer> quantities = new HashSet<>();
+        for (String line : lines) {
+            JsonNode sale = objectMapper.readTree(line);
+            assertEquals(employee.getId().toString(), sale.get("employeeId").asText());
+            quantities.add(sale.get("lines").get(0).get("quantity").asInt());
+        }
+        assertEquals(Set.of(1, 2, 3), quantities);
+    }
+
+    private void createSale(int quantity) throws Exception {
+        mockMvc.perform(post("/api/sales")
+                .header("X-Employee-Id", employee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(saleRequest(quantity))))
+                .andExpect(status().isOk());
+    }
+
+    private SaleRequest saleRequest(int quantity) {
+        SaleRequest request = new SaleRequest();
+        request.setItems(List.of(new SaleRequest.SaleItemRequest(6001, quantity)));
+        return request;
+    }
+}
@@ -0,0 +1,185 @@
+package com.sgtech.pos.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgtech.pos.dto.RentalRequest;
+import com.sgtech.pos.model.Customer;
+import com.sgtech.pos.model.Employee;
+import com.sgtech.pos.model.Item;
+import com.sgtech.pos.model.Rental;
+import com.sgtech.pos.repository.CustomerRepository;
+import com.sgtech.pos.repository.EmployeeRepository;
+import com.sgtech.pos.repository.ItemRepository;
+import com.sgtech.pos.repository.OutboxEventRepository;
+import com.sgtech.pos.repository.RentalRepository;
+import com.sgtech.pos.service.CustomerIdCache;
+import com.sgtech.pos.service.RentalService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * First-time rentals for the same phone arriving together. Runs without a
+ * test transaction so the customer inserts really race.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class CustomerUpsertIntegrationTest {
+
+    private static final int COUNTERS = 6;
+    private static final String PHONE = "5550009999";
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private CustomerIdCache customerIdCache;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Employee employee;
+    private Item item;
+
+    @BeforeEach
+    public void setUp() {
+        employee = employeeRepository.save(
+            new Employee("upsert-clerk", "Upsert", "Clerk", "Cashier", "not-a-real-hash"));
+        item = itemRepository.save(new Item(9501, "Upsert DVD", new BigDecimal("3.00"), 100));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        outboxEventRepository.deleteAll(outboxEventRepository.findAll());
+        deleteCustomer();
+        itemRepository.deleteById(item.getId());
+        employeeRepository.deleteById(employee.getId());
+    }
+
+    @Test
+    public void testConcurrentFirstRentalsShareOneCustomer() throws Exception {
+        ExecutorService counters = Executors.newFixedThreadPool(COUNTERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Rental>> rentals = new ArrayList<>();
+        for (int i = 0; i < COUNTERS; i++) {
+            rentals.add(counters.submit(() -> {
+                start.await();
+                return rentalService.processRental(employee.getId(), rental(PHONE));
+            }));
+        }
+        start.countDown();
+
+        Set<UUID> customerIds = new HashSet<>();
+        for (Future<Rental> rental : rentals) {
+            customerIds.add(rental.get().getCustomer().getId());
+        }
+        counters.shutdown();
+
+        Customer customer = customerRepository.findByPhone(PHONE).orElseThrow();
+        assertEquals(Set.of(customer.getId()), customerIds);
+        assertEquals(COUNTERS, rentalRepository.findByCustomerId(customer.getId()).size());
+        assertEquals(customer.getId(), customerIdCache.getOrCreate(PHONE));
+    }
+
+    @Test
+    @WithMockUser
+    public void testRepeatCustomerRentalLoadsNoCustomer() throws Exception {
+        rentalService.processRental(employee.getId(), rental(PHONE));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            mockMvc.perform(post("/api/rentals")
+                    .header("X-Employee-Id", employee.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(rental(PHONE))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.customerPhone").value(PHONE));
+
+            String customer = Customer.class.getName();
+            assertEquals(0, statistics.getEntityStatistics(customer).getLoadCount());
+            assertEquals(0, statistics.getEntityStatistics(customer).getFetchCount());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    public void testRentalAfterCustomerWasDeletedCreatesCustomerAgain() {
+        UUID first = rentalService.processRental(employee.getId(), rental(PHONE)).getCustomer().getId();
+        // Deleted behind the cache's back, as a merge of duplicates would
+        deleteCustomer();
+
+        UUID second = rentalService.processRental(employee.getId(), rental(PHONE)).getCustomer().getId();
+        assertNotEquals(first, second);
+        assertEquals(second, customerRepository.findByPhone(PHONE).orElseThrow().getId());
+        assertEquals(second, customerIdCache.getOrCreate(PHONE));
+    }
+
+    private void deleteCustomer() {
+        customerRepository.findByPhone(PHONE).ifPresent(customer -> {
+            rentalRepository.deleteAll(rentalRepository.findByCustomerId(customer.getId()));
+            customerRepository.delete(customer);
+        });
+    }
+
+    private RentalRequest rental(String phone) {
+        RentalRequest request = new RentalRequest();
+        request.setCustomerPhone(phone);
+        request.setDueDate(LocalDate.now().plusDays(3));
+        RentalRequest.RentalItemRequest line = new RentalRequest.RentalItemRequest();
+        line.setItemId(9501);
+        line.setQuantity(1);
+        request.setItems(new ArrayList<>(List.of(line)));
+        return request;
+    }
+}
@@ -0,0 +1,160 @@
+package com.sgtech.pos.integration;
+
+import com.sgtech.pos.dto.SaleRequest;
+import com.sgtech.pos.model.Employee;
+import com.sgtech.pos.model.Item;
+import com.sgtech.pos.repository.EmployeeRepository;
+import com.sgtech.pos.repository.ItemRepository;
+import com.sgtech.pos.repository.OutboxEventRepository;
+import com.sgtech.pos.repository.SaleItemRepository;
+import com.sgtech.pos.repository.SaleRepository;
+import com.sgtech.pos.service.InventoryService;
+import com.sgtech.pos.service.ItemChangeFeed;
+import com.sgtech.pos.service.SaleService;
+import com.sgtech.pos.service.StockEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Changes are only queued after commit, so this runs without a test
+ * transaction. The scheduled push is pushed out of the way and called by
+ * hand to make each window explicit.
+ */
+@SpringBootTest(properties = "pos.items.changes.coalesce-ms=3600000")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser
+public class ItemChangeFeedTest {
+
+    @Autowired
+    private ItemChangeFeed itemChangeFeed;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private SaleItemRepository saleItemRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private StockEngine stockEngine;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Employee employee;
+    private Item item;
+
+    @BeforeEach
+    public void setUp() {
+        employee = employeeRepository.save(
+            new Employee("feed-cashier", "Feed", "Cashier", "Cashier", "not-a-real-hash"));
+        item = itemRepository.save(new Item(9901, "Feed Item", new BigDecimal("5.00"), 10));
+        itemChangeFeed.push();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        outboxEventRepository.deleteAll(outboxEventRepository.findAll());
+        saleItemRepository.deleteAll(saleItemRepository.findAll());
+        saleRepository.deleteAll(saleRepository.findByEmployeeId(employee.getId()));
+        itemRepository.deleteById(item.getId());
+        employeeRepository.deleteById(employee.getId());
+    }
+
+    @Test
+    public void testCommittedChangesAreCoalescedPerItem() throws Exception {
+        MockHttpServletResponse stream = mockMvc.perform(get("/api/items/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+
+        saleService.processSale(employee.getId(), sale(2));
+        saleService.processSale(employee.getId(), sale(3));
+        // Rolled back: more than is left in stock
+        assertThrows(RuntimeException.class, () -> saleService.processSale(employee.getId(), sale(50)));
+        itemChangeFeed.push();
+
+        String events = stream.getContentAsString();
+        assertEquals(1, count(events, "event:" + ItemChangeFeed.EVENT_NAME));
+        assertTrue(events.contains("{\"itemId\":9901,\"quantity\":5,\"price\":5.00}"), events);
+
+        inventoryService.updateItemQuantityByItemId(9901, 40);
+        itemChangeFeed.push();
+
+        events = stream.getContentAsString();
+        assertEquals(2, count(events, "event:" + ItemChangeFeed.EVENT_NAME));
+        assertTrue(events.contains("{\"itemId\":9901,\"quantity\":40,\"price\":5.00}"), events);
+    }
+
+    @Test
+    public void testOverlappingCheckoutsPushStoredQuantity() throws Exception {
+        MockHttpServletResponse stream = mockMvc.perform(get("/api/items/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Item stale = itemRepository.findByItemId(9901).orElseThrow();
+            // Another register sells 3 after this checkout loaded the item
+            CompletableFuture.runAsync(() -> saleService.processSale(employee.getId(), sale(3))).join();
+
+            stockEngine.take(Map.of(stale, 2));
+            itemChangeFeed.itemsChanged(List.of(stale));
+            assertEquals(5, stale.getQuantity());
+        });
+        itemChangeFeed.push();
+
+        String events = stream.getContentAsString();
+        assertTrue(events.contains("{\"itemId\":9901,\"quantity\":5,\"price\":5.00}"), events);
+        assertFalse(events.contains("\"quantity\":8"), events);
+    }
+
+    private int count(String text, String token) {
+        int count = 0;
+        for (int i = text.indexOf(token); i >= 0; i = text.indexOf(token, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    private SaleRequest sale(int quantity) {
+        SaleRequest request = new SaleRequest();
+        request.setItems(List.of(new SaleRequest.SaleItemRequest(9901, quantity)));
+        return request;
+    }
+}
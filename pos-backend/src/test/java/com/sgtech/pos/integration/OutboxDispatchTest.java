@@ -0,0 +1,145 @@
+package com.sgtech.pos.integration;
+
+import com.sgtech.pos.dto.SaleRequest;
+import com.sgtech.pos.model.Employee;
+import com.sgtech.pos.model.Item;
+import com.sgtech.pos.model.OutboxEvent;
+import com.sgtech.pos.model.Sale;
+import com.sgtech.pos.repository.EmployeeRepository;
+import com.sgtech.pos.repository.ItemRepository;
+import com.sgtech.pos.repository.OutboxEventRepository;
+import com.sgtech.pos.repository.SaleItemRepository;
+import com.sgtech.pos.repository.SaleRepository;
+import com.sgtech.pos.service.OutboxEventListener;
+import com.sgtech.pos.service.OutboxService;
+import com.sgtech.pos.service.SaleService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checkout commits for real here so the dispatcher can pick the outbox
+ * rows up after the transaction.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class OutboxDispatchTest {
+
+    @TestConfiguration
+    static class RecordingListenerConfig {
+        @Bean
+        public RecordingListener recordingListener() {
+            return new RecordingListener();
+        }
+    }
+
+    static class RecordingListener implements OutboxEventListener {
+        final BlockingQueue<OutboxEvent> events = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onEvent(OutboxEvent event) {
+            events.add(event);
+        }
+    }
+
+    @Autowired
+    private RecordingListener listener;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private SaleItemRepository saleItemRepository;
+
+    private Employee employee;
+    private Item item;
+
+    @BeforeEach
+    public void setUp() {
+        listener.events.clear();
+        employee = employeeRepository.save(
+            new Employee("outbox-cashier", "Outbox", "Cashier", "Cashier", "not-a-real-hash"));
+        item = itemRepository.save(new Item(9801, "Outbox Item", new BigDecimal("4.00"), 5));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        outboxEventRepository.deleteAll(outboxEventRepository.findAll());
+        saleItemRepository.deleteAll(saleItemRepository.findAll());
+        saleRepository.deleteAll(saleRepository.findByEmployeeId(employee.getId()));
+        itemRepository.deleteById(item.getId());
+        employeeRepository.deleteById(employee.getId());
+    }
+
+    @Test
+    public void testCommittedSaleIsDispatched() throws Exception {
+        SaleRequest request = new SaleRequest();
+        request.setItems(List.of(new SaleRequest.SaleItemRequest(9801, 2)));
+
+        Sale sale = saleService.processSale(employee.getId(), request);
+
+        OutboxEvent event = listener.events.poll(10, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertEquals(OutboxService.SALE_COMPLETED, event.getEventType());
+        assertEquals(sale.getId(), event.getAggregateId());
+        assertTrue(event.getPayload().contains("\"itemId\":9801"));
+
+        // The dispatcher marks the batch after every listener has seen it
+        long deadline = System.currentTimeMillis() + 10000;
+        String status = null;
+        while (System.currentTimeMillis() < deadline) {
+            status = outboxEventRepository.findById(event.getId()).orElseThrow().getStatus();
+            if (OutboxEvent.DISPATCHED.equals(status)) {
+                break;
+            }
+            Thread.sleep(20);
+        }
+        assertEquals(OutboxEvent.DISPATCHED, status);
+    }
+
+    @Test
+    public void testFailedSaleLeavesNoEvent() {
+        SaleRequest request = new SaleRequest();
+        request.setItems(List.of(new SaleRequest.SaleItemRequest(9801, 50)));
+        long before = outboxEventRepository.count();
+
+        assertThrows(RuntimeException.class, () -> saleService.processSale(employee.getId(), request));
+        assertEquals(before, outboxEventRepository.count());
+    }
+
+    @Test
+    public void testRecordRequiresTransaction() {
+        assertThrows(IllegalTransactionStateException.class,
+            () -> outboxService.record(OutboxService.SALE_COMPLETED, "Sale", UUID.randomUUID(), "{}"));
+    }
+}
@@ -0,0 +1,149 @@
+package com.sgtech.pos.integration;
+
+import com.sgtech.pos.config.ReplicaLagGuard;
+import com.sgtech.pos.config.ReplicaRoutingDataSource;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A second in-memory H2 database stands in for the replica. Routing is
+ * checked by asking each transaction's connection which database it
+ * belongs to.
+ */
+@SpringBootTest(properties = {
+    "pos.datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+    "pos.datasource.replica.lag-query="
+})
+@ActiveProfiles("test")
+public class ReadReplicaRoutingTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @AfterEach
+    public void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testReadOnlyTransactionsUseReplica() {
+        assertTrue(databaseOf(transaction(true)).contains("replica"));
+    }
+
+    @Test
+    public void testWriteTransactionsUsePrimary() {
+        assertTrue(databaseOf(transaction(false)).contains("testdb"));
+    }
+
+    @Test
+    public void testLaggingReplicaFallsBackToPrimary() throws Exception {
+        ReplicaLagGuard guard = new ReplicaLagGuard(replicaDataSource, "SELECT 10", Duration.ofSeconds(2));
+        DataSource routing = new LazyConnectionDataSourceProxy(
+            new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, guard));
+        TransactionTemplate readOnly = transaction(true);
+
+        assertTrue(readOnly.execute(status -> urlOf(routing)).contains("replica"));
+
+        guard.check();
+        assertFalse(guard.isReplicaUsable());
+        assertTrue(readOnly.execute(status -> urlOf(routing)).contains("testdb"));
+    }
+
+    @Test
+    public void testUnreachableLagQueryFallsBackToPrimary() {
+        ReplicaLagGuard guard = new ReplicaLagGuard(replicaDataSource, "SELECT missing FROM nowhere",
+            Duration.ofSeconds(2));
+        guard.check();
+        assertFalse(guard.isReplicaUsable());
+    }
+
+    @Test
+    public void testUsersReadTheirOwnWritesFromPrimary() {
+        signIn("writer");
+        databaseOf(transaction(false));
+        assertTrue(databaseOf(transaction(true)).contains("testdb"));
+
+        signIn("reader");
+        assertTrue(databaseOf(transaction(true)).contains("replica"));
+    }
+
+    @Test
+    public void testWriterIsPinnedOnlyForMaxLag() throws Exception {
+        ReplicaLagGuard guard = new ReplicaLagGuard(replicaDataSource, "", Duration.ofMillis(50));
+        guard.recordWrite("writer");
+        assertFalse(guard.isReplicaUsable("writer"));
+        assertTrue(guard.isReplicaUsable("reader"));
+        assertTrue(guard.isReplicaUsable(null));
+
+        Thread.sleep(100);
+        assertTrue(guard.isReplicaUsable("writer"));
+    }
+
+    @Test
+    public void testReplicaTransactionsOnlyReadSecondLevelCache() {
+        assertEquals(CacheMode.GET, cacheModeOf(transaction(true)));
+        assertEquals(CacheMode.NORMAL, cacheModeOf(transaction(false)));
+    }
+
+    private void signIn(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    private CacheMode cacheModeOf(TransactionTemplate template) {
+        return template.execute(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            session.doWork(connection -> connection.getMetaData());
+            return session.getCacheMode();
+        });
+    }
+
+    private TransactionTemplate transaction(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template;
+    }
+
+    private String databaseOf(TransactionTemplate template) {
+        return template.execute(status -> entityManager.unwrap(Session.class)
+            .doReturningWork(connection -> connection.getMetaData().getURL()));
+    }
+
+    private String urlOf(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
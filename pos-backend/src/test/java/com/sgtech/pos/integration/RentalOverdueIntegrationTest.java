@@ -0,0 +1,98 @@
+package com.sgtech.pos.integration;
+
+import com.sgtech.pos.dto.RentalRequest;
+import com.sgtech.pos.model.Employee;
+import com.sgtech.pos.model.Item;
+import com.sgtech.pos.model.RentalItem;
+import com.sgtech.pos.repository.CustomerRepository;
+import com.sgtech.pos.repository.EmployeeRepository;
+import com.sgtech.pos.repository.ItemRepository;
+import com.sgtech.pos.repository.OutboxEventRepository;
+import com.sgtech.pos.repository.RentalRepository;
+import com.sgtech.pos.service.RentalService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Days overdue caught up outside the nightly run. The update commits in
+ * its own transaction, so this runs without a test transaction.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class RentalOverdueIntegrationTest {
+
+    private static final String PHONE = "5550007777";
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private Employee employee;
+    private Item item;
+
+    @BeforeEach
+    public void setUp() {
+        employee = employeeRepository.save(
+            new Employee("overdue-clerk", "Overdue", "Clerk", "Cashier", "not-a-real-hash"));
+        item = itemRepository.save(new Item(9511, "Overdue DVD", new BigDecimal("3.00"), 100));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        outboxEventRepository.deleteAll(outboxEventRepository.findAll());
+        customerRepository.findByPhone(PHONE).ifPresent(customer -> {
+            rentalRepository.deleteAll(rentalRepository.findByCustomerId(customer.getId()));
+            customerRepository.delete(customer);
+        });
+        itemRepository.deleteById(item.getId());
+        employeeRepository.deleteById(employee.getId());
+    }
+
+    @Test
+    public void testFirstLookupOfTheDayUpdatesDaysOverdue() {
+        rentalService.processRental(employee.getId(), rentalDue(LocalDate.now().minusDays(4)));
+        // As if the backend was down when the nightly update was due
+        ReflectionTestUtils.setField(rentalService, "daysOverdueUpdatedOn", LocalDate.now().minusDays(1));
+
+        List<RentalItem> outstanding = rentalService.getOutstandingRentals(PHONE);
+        assertEquals(1, outstanding.size());
+        assertEquals(4, outstanding.get(0).getDaysOverdue());
+    }
+
+    private RentalRequest rentalDue(LocalDate dueDate) {
+        RentalRequest request = new RentalRequest();
+        request.setCustomerPhone(PHONE);
+        request.setDueDate(dueDate);
+        RentalRequest.RentalItemRequest line = new RentalRequest.RentalItemRequest();
+        line.setItemId(9511);
+        line.setQuantity(1);
+        request.setItems(new ArrayList<>(List.of(line)));
+        return request;
+    }
+}
@@ -0,0 +1,110 @@
+package com.sgtech.pos.integration;
+
+import com.sgtech.pos.dto.SaleBatchResponse;
+import com.sgtech.pos.dto.SaleRequest;
+import com.sgtech.pos.model.Employee;
+import com.sgtech.pos.model.Item;
+import com.sgtech.pos.repository.EmployeeRepository;
+import com.sgtech.pos.repository.ItemRepository;
+import com.sgtech.pos.repository.OutboxEventRepository;
+import com.sgtech.pos.repository.SaleItemRepository;
+import com.sgtech.pos.repository.SaleRepository;
+import com.sgtech.pos.service.SaleBatchService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Chunks commit on their own, so this runs without a test transaction
+ * and cleans up after itself.
+ */
+@SpringBootTest(properties = "pos.sales.batch.chunk-size=3")
+@ActiveProfiles("test")
+public class SaleBatchIntegrationTest {
+
+    @Autowired
+    private SaleBatchService saleBatchService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private SaleItemRepository saleItemRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private Employee employee;
+    private Item item;
+
+    @BeforeEach
+    public void setUp() {
+        employee = employeeRepository.save(
+            new Employee("batch-cashier", "Batch", "Cashier", "Cashier", "not-a-real-hash"));
+        item = itemRepository.save(new Item(9701, "Batch Item", new BigDecimal("1.00"), 9));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        outboxEventRepository.deleteAll(outboxEventRepository.findAll());
+        saleItemRepository.deleteAll(saleItemRepository.findAll());
+        saleRepository.deleteAll(saleRepository.findByEmployeeId(employee.getId()));
+        itemRepository.deleteById(item.getId());
+        employeeRepository.deleteById(employee.getId());
+    }
+
+    @Test
+    public void testBatchReportsEachSale() {
+        List<SaleRequest> sales = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            sales.add(sale(9701, 2));
+        }
+        sales.set(1, sale(12345, 1));
+
+        SaleBatchResponse response = saleBatchService.processBatch(employee.getId(), sales);
+
+        assertEquals(7, response.getResults().size());
+        assertEquals(4, response.getSucceeded());
+        assertEquals(3, response.getFailed());
+        for (int i = 0; i < 7; i++) {
+            assertEquals(i, response.getResults().get(i).getIndex());
+        }
+        assertEquals("Item not found: 12345", response.getResults().get(1).getError());
+        // 9 in stock: four sales of 2 fit, the last two run out
+        assertTrue(response.getResults().get(5).getError().startsWith("Insufficient inventory"));
+        assertTrue(response.getResults().get(6).getError().startsWith("Insufficient inventory"));
+        assertEquals(new BigDecimal("2.12"), response.getResults().get(0).getFinalTotal());
+
+        assertEquals(1, itemRepository.findByItemId(9701).orElseThrow().getQuantity());
+        assertEquals(4, saleRepository.findByEmployeeId(employee.getId()).size());
+    }
+
+    @Test
+    public void testUnknownEmployeeRejectsBatch() {
+        assertThrows(RuntimeException.class,
+            () -> saleBatchService.processBatch(UUID.randomUUID(), List.of(sale(9701, 1))));
+        assertEquals(9, itemRepository.findByItemId(9701).orElseThrow().getQuantity());
+    }
+
+    private SaleRequest sale(int itemId, int quantity) {
+        SaleRequest request = new SaleRequest();
+        request.setItems(List.of(new SaleRequest.SaleItemRequest(itemId, quantity)));
+        return request;
+    }
+}
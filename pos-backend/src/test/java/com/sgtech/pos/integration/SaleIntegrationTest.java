@@ -3,6 +3,7 @@ package com.sgtech.pos.integration;
 import com.sgtech.pos.dto.SaleRequest;
 import com.sgtech.pos.model.*;
 import com.sgtech.pos.repository.*;
+import com.sgtech.pos.service.CouponService;
 import com.sgtech.pos.service.SaleService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -42,6 +43,9 @@ public class SaleIntegrationTest {
     @Autowired
     private CouponRepository couponRepository;
 
+    @Autowired
+    private CouponService couponService;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -81,7 +85,7 @@ public class SaleIntegrationTest {
         coupon.setCode("TEST10");
         coupon.setDiscountPercent(new BigDecimal("10.00"));
         coupon.setActive(true);
-        coupon = couponRepository.save(coupon);
+        coupon = couponService.save(coupon);
     }
 
     @Test
@@ -0,0 +1,126 @@
+package com.sgtech.pos.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgtech.pos.dto.SaleRequest;
+import com.sgtech.pos.model.Employee;
+import com.sgtech.pos.model.Item;
+import com.sgtech.pos.model.Sale;
+import com.sgtech.pos.repository.EmployeeRepository;
+import com.sgtech.pos.repository.ItemRepository;
+import com.sgtech.pos.repository.OutboxEventRepository;
+import com.sgtech.pos.repository.SaleItemRepository;
+import com.sgtech.pos.repository.SaleRepository;
+import com.sgtech.pos.service.SaleService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Exports sales with several lines each from committed data, so nothing
+ * is served from a test transaction's persistence context. A batch size
+ * of 2 makes the export cross batch boundaries.
+ */
+@SpringBootTest(properties = "pos.sales.export.batch-size=2")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser
+public class SalesExportIntegrationTest {
+
+    private static final int[] LINES_PER_SALE = {1, 3, 2, 3, 1};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private SaleItemRepository saleItemRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private Employee employee;
+    private List<Item> items;
+
+    @BeforeEach
+    public void setUp() {
+        employee = employeeRepository.save(
+            new Employee("export-cashier", "Export", "Cashier", "Cashier", "not-a-real-hash"));
+        items = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            items.add(itemRepository.save(new Item(9400 + i, "Export Item " + i, new BigDecimal("2.00"), 100)));
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        outboxEventRepository.deleteAll(outboxEventRepository.findAll());
+        saleItemRepository.deleteAll(saleItemRepository.findAll());
+        saleRepository.deleteAll(saleRepository.findByEmployeeId(employee.getId()));
+        for (Item item : items) {
+            itemRepository.deleteById(item.getId());
+        }
+        employeeRepository.deleteById(employee.getId());
+    }
+
+    @Test
+    public void testExportKeepsEveryLineOfMultiLineSales() throws Exception {
+        Map<String, Integer> expected = new HashMap<>();
+        for (int lines : LINES_PER_SALE) {
+            Sale sale = saleService.processSale(employee.getId(), sale(lines));
+            expected.put(sale.getId().toString(), lines);
+        }
+
+        String body = mockMvc.perform(get("/api/sales/export")
+                .param("employeeId", employee.getId().toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        Map<String, Integer> exported = new HashMap<>();
+        for (String line : body.trim().split("\n")) {
+            JsonNode sale = objectMapper.readTree(line);
+            assertNull(exported.put(sale.get("id").asText(), sale.get("lines").size()), "exported twice: " + line);
+        }
+        assertEquals(expected, exported);
+    }
+
+    private SaleRequest sale(int lines) {
+        List<SaleRequest.SaleItemRequest> requested = new ArrayList<>();
+        for (int i = 1; i <= lines; i++) {
+            requested.add(new SaleRequest.SaleItemRequest(9400 + i, i));
+        }
+        SaleRequest request = new SaleRequest();
+        request.setItems(requested);
+        return request;
+    }
+}
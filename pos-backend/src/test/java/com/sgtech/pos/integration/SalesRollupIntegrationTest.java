@@ -0,0 +1,223 @@
+package com.sgtech.pos.integration;
+
+import com.sgtech.pos.dto.DailySalesReport;
+import com.sgtech.pos.dto.EmployeeSalesReport;
+import com.sgtech.pos.dto.ItemSalesReport;
+import com.sgtech.pos.dto.SaleRequest;
+import com.sgtech.pos.model.Employee;
+import com.sgtech.pos.model.Item;
+import com.sgtech.pos.model.Sale;
+import com.sgtech.pos.repository.EmployeeRepository;
+import com.sgtech.pos.repository.ItemRepository;
+import com.sgtech.pos.repository.OutboxEventRepository;
+import com.sgtech.pos.repository.SaleItemRepository;
+import com.sgtech.pos.repository.SaleRepository;
+import com.sgtech.pos.service.ReportService;
+import com.sgtech.pos.service.SaleBatchService;
+import com.sgtech.pos.service.SaleService;
+import com.sgtech.pos.service.SalesRollupService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Rollups are written in the sale transactions and the rebuild runs its
+ * own transactions, so this runs without a test transaction and cleans
+ * up after itself.
+ */
+@SpringBootTest(properties = "pos.reports.daily-slots=4")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser
+public class SalesRollupIntegrationTest {
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private SaleBatchService saleBatchService;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private SaleItemRepository saleItemRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Employee employee;
+    private Item pen;
+    private Item lamp;
+    private LocalDate today;
+
+    @BeforeEach
+    public void setUp() {
+        employee = employeeRepository.save(
+            new Employee("rollup-cashier", "Rollup", "Cashier", "Cashier", "not-a-real-hash"));
+        pen = itemRepository.save(new Item(9801, "Rollup Pen", new BigDecimal("2.00"), 100));
+        lamp = itemRepository.save(new Item(9802, "Rollup Lamp", new BigDecimal("30.00"), 100));
+        today = LocalDate.now();
+        // Start from figures that match whatever sales other tests left behind
+        salesRollupService.rebuild(today, today.plusDays(1));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        outboxEventRepository.deleteAll(outboxEventRepository.findAll());
+        saleItemRepository.deleteAll(saleItemRepository.findAll());
+        saleRepository.deleteAll(saleRepository.findByEmployeeId(employee.getId()));
+        salesRollupService.rebuild(today, today.plusDays(1));
+        itemRepository.deleteById(pen.getId());
+        itemRepository.deleteById(lamp.getId());
+        employeeRepository.deleteById(employee.getId());
+    }
+
+    @Test
+    public void testIncrementalRollupsMatchRebuild() {
+        DailySalesReport before = day();
+
+        Sale first = saleService.processSale(employee.getId(), sale(9801, 3));
+        Sale second = saleService.processSale(employee.getId(), sale(9802, 1));
+        saleBatchService.processBatch(employee.getId(), List.of(sale(9801, 2), sale(9802, 2)));
+
+        DailySalesReport after = day();
+        assertEquals(before.getTransactions() + 4, after.getTransactions());
+        BigDecimal batchTotal = saleRepository.findByEmployeeId(employee.getId()).stream()
+            .map(Sale::getFinalTotal)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, before.getTotal().add(batchTotal).compareTo(after.getTotal()));
+        assertTrue(batchTotal.compareTo(first.getFinalTotal().add(second.getFinalTotal())) > 0);
+
+        ItemSalesReport pens = item(9801);
+        assertEquals(5, pens.getQuantitySold());
+        assertEquals(0, new BigDecimal("10.00").compareTo(pens.getRevenue()));
+        assertEquals(0, new BigDecimal("90.00").compareTo(item(9802).getRevenue()));
+
+        EmployeeSalesReport cashier = employeeReport();
+        assertEquals(4, cashier.getTransactions());
+        assertEquals(0, batchTotal.compareTo(cashier.getTotal()));
+
+        salesRollupService.rebuild(null, null);
+
+        DailySalesReport rebuilt = day();
+        assertEquals(after.getTransactions(), rebuilt.getTransactions());
+        assertEquals(0, after.getSubtotal().compareTo(rebuilt.getSubtotal()));
+        assertEquals(0, after.getTax().compareTo(rebuilt.getTax()));
+        assertEquals(0, after.getTotal().compareTo(rebuilt.getTotal()));
+        assertEquals(pens.getQuantitySold(), item(9801).getQuantitySold());
+        assertEquals(0, cashier.getTotal().compareTo(employeeReport().getTotal()));
+    }
+
+    @Test
+    public void testConcurrentFirstSalesOfTheDayShareRollupRows() throws Exception {
+        // The cashier has no rollup row yet, so both sales try to create it
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Sale>> sales = List.of(
+            CompletableFuture.supplyAsync(() -> {
+                await(start);
+                return saleService.processSale(employee.getId(), sale(9801, 1));
+            }),
+            CompletableFuture.supplyAsync(() -> {
+                await(start);
+                return saleService.processSale(employee.getId(), sale(9802, 1));
+            }));
+        start.countDown();
+        BigDecimal total = BigDecimal.ZERO;
+        for (CompletableFuture<Sale> sale : sales) {
+            total = total.add(sale.get().getFinalTotal());
+        }
+
+        EmployeeSalesReport cashier = employeeReport();
+        assertEquals(2, cashier.getTransactions());
+        assertEquals(0, total.compareTo(cashier.getTotal()));
+    }
+
+    @Test
+    public void testTopItemsEndpointRanksByRevenue() throws Exception {
+        saleService.processSale(employee.getId(), sale(9801, 4));
+        saleService.processSale(employee.getId(), sale(9802, 1));
+
+        mockMvc.perform(get("/api/reports/items")
+                .param("from", today.toString())
+                .param("to", today.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].itemId").value(9802))
+                .andExpect(jsonPath("$[0].quantitySold").value(1))
+                .andExpect(jsonPath("$[1].itemId").value(9801))
+                .andExpect(jsonPath("$[1].quantitySold").value(4));
+
+        mockMvc.perform(get("/api/reports/daily"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].date").value(today.toString()));
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private DailySalesReport day() {
+        List<DailySalesReport> days = reportService.getDailySales(today, today);
+        if (days.isEmpty()) {
+            return new DailySalesReport(today, 0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO,
+                BigDecimal.ZERO, 0, BigDecimal.ZERO);
+        }
+        return days.get(0);
+    }
+
+    private ItemSalesReport item(int itemId) {
+        return reportService.getTopItems(today, today, 500).stream()
+            .filter(report -> report.getItemId() == itemId)
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private EmployeeSalesReport employeeReport() {
+        return reportService.getEmployeeSales(today, today).stream()
+            .filter(report -> report.getEmployeeId().equals(employee.getId()))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private SaleRequest sale(int itemId, int quantity) {
+        SaleRequest request = new SaleRequest();
+        request.setItems(List.of(new SaleRequest.SaleItemRequest(itemId, quantity)));
+        return request;
+    }
+}
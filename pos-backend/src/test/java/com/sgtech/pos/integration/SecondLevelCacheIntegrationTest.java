@@ -0,0 +1,179 @@
+package com.sgtech.pos.integration;
+
+import com.sgtech.pos.dto.SaleRequest;
+import com.sgtech.pos.model.Employee;
+import com.sgtech.pos.model.Item;
+import com.sgtech.pos.repository.EmployeeRepository;
+import com.sgtech.pos.repository.ItemRepository;
+import com.sgtech.pos.repository.OutboxEventRepository;
+import com.sgtech.pos.repository.SaleItemRepository;
+import com.sgtech.pos.repository.SaleRepository;
+import com.sgtech.pos.service.SaleService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the statements Hibernate prepares for the same work run twice.
+ * Runs without a test transaction so each run gets its own session and
+ * only the second-level cache carries over.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+    + "com.sgtech.pos.integration.SecondLevelCacheIntegrationTest$CountingInspector")
+@ActiveProfiles("test")
+public class SecondLevelCacheIntegrationTest {
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private SaleItemRepository saleItemRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Employee employee;
+    private Item first;
+    private Item second;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        employee = employeeRepository.save(
+            new Employee("cache-cashier", "Cache", "Cashier", "Cashier", "not-a-real-hash"));
+        first = itemRepository.save(new Item(9601, "Cached Item", new BigDecimal("4.00"), 100));
+        second = itemRepository.save(new Item(9602, "Other Cached Item", new BigDecimal("6.00"), 100));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        statistics.setStatisticsEnabled(false);
+        outboxEventRepository.deleteAll(outboxEventRepository.findAll());
+        saleItemRepository.deleteAll(saleItemRepository.findAll());
+        saleRepository.deleteAll(saleRepository.findByEmployeeId(employee.getId()));
+        itemRepository.deleteById(first.getId());
+        itemRepository.deleteById(second.getId());
+        employeeRepository.deleteById(employee.getId());
+    }
+
+    @Test
+    public void testRepeatedCheckoutIsServedFromCache() {
+        entityManagerFactory.getCache().evictAll();
+        List<String> cold = CountingInspector.record(() -> saleService.processSale(employee.getId(), sale()));
+        List<String> warm = CountingInspector.record(() -> saleService.processSale(employee.getId(), sale()));
+
+        // The employee now comes from the entity cache. The items had their
+        // stock changed by the first sale, so they are evicted and loaded
+        // again in one query.
+        assertEquals(1, count(cold, "from employees"));
+        assertEquals(0, count(warm, "from employees"));
+        assertEquals(1, count(warm, "from items"));
+        assertEquals(cold.size() - 1, warm.size(), "cold=" + cold + " warm=" + warm);
+    }
+
+    @Test
+    public void testRepeatedItemLookupIsServedFromCache() {
+        entityManagerFactory.getCache().evictAll();
+        List<String> cold = CountingInspector.record(() -> itemRepository.findByItemId(9601).orElseThrow());
+        List<String> warm = CountingInspector.record(() -> itemRepository.findByItemId(9601).orElseThrow());
+
+        assertEquals(1, cold.size());
+        assertEquals(0, warm.size());
+        assertTrue(statistics.getNaturalIdCacheHitCount() >= 1);
+    }
+
+    @Test
+    public void testRepeatedBatchLookupIsServedFromCache() {
+        // Natural-id resolutions survive the JPA evictAll
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        List<Integer> itemIds = List.of(9601, 9602, 9699);
+        List<String> cold = CountingInspector.record(() -> assertEquals(2, itemRepository.findByItemIdIn(itemIds).size()));
+        List<String> warm = CountingInspector.record(() -> assertEquals(2, itemRepository.findByItemIdIn(itemIds).size()));
+
+        assertEquals(1, cold.size(), "cold=" + cold);
+        // 9699 does not exist, so only it is looked up again
+        assertEquals(1, warm.size(), "warm=" + warm);
+        assertEquals(1, count(warm, "where i1_0.item_id"));
+    }
+
+    @Test
+    public void testStockUpdatesEvictCachedItems() {
+        saleService.processSale(employee.getId(), sale());
+        assertFalse(entityManagerFactory.getCache().contains(Item.class, first.getId()));
+
+        Item reloaded = itemRepository.findByItemId(9601).orElseThrow();
+        assertEquals(99, reloaded.getQuantity());
+        assertTrue(entityManagerFactory.getCache().contains(Item.class, first.getId()));
+
+        saleService.processSale(employee.getId(), sale());
+        assertEquals(98, itemRepository.findByItemId(9601).orElseThrow().getQuantity());
+    }
+
+    private long count(List<String> statements, String fragment) {
+        return statements.stream().filter(sql -> sql.toLowerCase().contains(fragment)).count();
+    }
+
+    private SaleRequest sale() {
+        SaleRequest request = new SaleRequest();
+        request.setItems(List.of(
+            new SaleRequest.SaleItemRequest(9601, 1),
+            new SaleRequest.SaleItemRequest(9602, 1)));
+        return request;
+    }
+
+    /**
+     * Records the statements Hibernate prepares on the calling thread, so
+     * background work such as outbox dispatch is not counted
+     */
+    public static class CountingInspector implements StatementInspector {
+
+        private static final ThreadLocal<List<String>> statements = new ThreadLocal<>();
+
+        static List<String> record(Runnable work) {
+            List<String> recorded = new ArrayList<>();
+            statements.set(recorded);
+            try {
+                work.run();
+            } finally {
+                statements.remove();
+            }
+            return recorded;
+        }
+
+        @Override
+        public String inspect(String sql) {
+            List<String> recorded = statements.get();
+            if (recorded != null) {
+                recorded.add(sql);
+            }
+            return sql;
+        }
+    }
+}
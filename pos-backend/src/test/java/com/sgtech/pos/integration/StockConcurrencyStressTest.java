@@ -0,0 +1,120 @@
+package com.sgtech.pos.integration;
+
+import com.sgtech.pos.dto.SaleRequest;
+import com.sgtech.pos.model.Employee;
+import com.sgtech.pos.model.Item;
+import com.sgtech.pos.repository.EmployeeRepository;
+import com.sgtech.pos.repository.ItemRepository;
+import com.sgtech.pos.repository.SaleItemRepository;
+import com.sgtech.pos.repository.SaleRepository;
+import com.sgtech.pos.service.SaleService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Several registers selling the same item at once. Runs without a test
+ * transaction so every sale commits for real and contends on the row.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class StockConcurrencyStressTest {
+
+    private static final int REGISTERS = 8;
+    private static final int SALES_PER_REGISTER = 40;
+    private static final int INITIAL_STOCK = 100;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private SaleItemRepository saleItemRepository;
+
+    private Employee employee;
+    private Item item;
+
+    @BeforeEach
+    public void setUp() {
+        employee = employeeRepository.save(
+            new Employee("stress-cashier", "Stress", "Cashier", "Cashier", "not-a-real-hash"));
+        item = itemRepository.save(new Item(9901, "Hot Item", new BigDecimal("2.50"), INITIAL_STOCK));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        saleItemRepository.deleteAll(saleItemRepository.findAll());
+        saleRepository.deleteAll(saleRepository.findByEmployeeId(employee.getId()));
+        itemRepository.deleteById(item.getId());
+        employeeRepository.deleteById(employee.getId());
+    }
+
+    @Test
+    public void testConcurrentSalesNeverOversell() throws Exception {
+        ExecutorService registers = Executors.newFixedThreadPool(REGISTERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int r = 0; r < REGISTERS; r++) {
+            futures.add(registers.submit(() -> {
+                start.await();
+                for (int i = 0; i < SALES_PER_REGISTER; i++) {
+                    SaleRequest request = new SaleRequest();
+                    request.setItems(List.of(new SaleRequest.SaleItemRequest(9901, 1)));
+                    try {
+                        saleService.processSale(employee.getId(), request);
+                        completed.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        registers.shutdown();
+
+        int attempts = REGISTERS * SALES_PER_REGISTER;
+        System.out.printf("Stock stress: %d registers, %d attempts, %d sold, %d rejected in %d ms (%.1f checkouts/s)%n",
+            REGISTERS, attempts, completed.get(), rejected.get(), elapsedNanos / 1_000_000,
+            attempts / (elapsedNanos / 1_000_000_000.0));
+
+        Item finalItem = itemRepository.findByItemId(9901).orElseThrow();
+        assertTrue(finalItem.getQuantity() >= 0);
+        assertEquals(INITIAL_STOCK, completed.get());
+        assertEquals(0, finalItem.getQuantity());
+        assertEquals(attempts - INITIAL_STOCK, rejected.get());
+        assertEquals(INITIAL_STOCK, saleRepository.findByEmployeeId(employee.getId()).size());
+    }
+}
@@ -8,7 +8,9 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -67,5 +69,29 @@ public class ItemRepositoryTest {
         assertFalse(found.isEmpty());
         assertEquals("Test Item", found.get(0).getName());
     }
-}
 
+    @Test
+    public void testFindByItemIdIn() {
+        Item item2 = new Item(1002, "Second Item", new BigDecimal("5.00"), 5);
+        entityManager.persistAndFlush(item2);
+
+        List<Item> found = itemRepository.findByItemIdIn(List.of(1001, 1002, 9999));
+        assertEquals(2, found.size());
+    }
+
+    @Test
+    public void testDecrementStock() {
+        Item item2 = new Item(1002, "Second Item", new BigDecimal("5.00"), 5);
+        entityManager.persistAndFlush(item2);
+
+        Map<Item, Integer> changes = new LinkedHashMap<>();
+        changes.put(testItem, 30);
+        changes.put(item2, 5);
+        itemRepository.decrementStock(changes);
+
+        assertEquals(70, testItem.getQuantity());
+        entityManager.clear();
+        assertEquals(70, itemRepository.findByItemId(1001).orElseThrow().getQuantity());
+        assertEquals(0, itemRepository.findByItemId(1002).orElseThrow().getQuantity());
+    }
+}
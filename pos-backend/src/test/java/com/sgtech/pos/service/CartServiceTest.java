@@ -0,0 +1,142 @@
+package com.sgtech.pos.service;
+
+import com.sgtech.pos.dto.SaleRequest;
+import com.sgtech.pos.model.*;
+import com.sgtech.pos.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class CartServiceTest {
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private CouponCache couponCache;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setUp() {
+        employee = employeeRepository.save(
+            new Employee("cart-cashier", "Cart", "Cashier", "Cashier", "not-a-real-hash"));
+        itemRepository.save(new Item(2001, "Cart Item 1", new BigDecimal("10.00"), 20));
+        itemRepository.save(new Item(2002, "Cart Item 2", new BigDecimal("3.35"), 5));
+        couponService.save(new Coupon("CART15", new BigDecimal("15.00")));
+    }
+
+    @Test
+    public void testTotalsFollowEachScan() {
+        UUID cartId = cartService.createCart().getId();
+
+        Cart cart = cartService.addLine(cartId, 2001, 2);
+        assertEquals(new BigDecimal("20.00"), cart.getSubtotal());
+        assertEquals(new BigDecimal("1.20"), cart.getTaxAmount());
+
+        // Scanning the same item again merges into its line
+        cart = cartService.addLine(cartId, 2001, 1);
+        cart = cartService.addLine(cartId, 2002, 3);
+        assertEquals(2, cart.getLines().size());
+        assertEquals(3, cart.getLine(2001).getQuantity());
+        assertEquals(new BigDecimal("40.05"), cart.getSubtotal());
+        assertEquals(new BigDecimal("2.40"), cart.getTaxAmount());
+
+        cart = cartService.removeLine(cartId, 2001);
+        assertEquals(new BigDecimal("10.05"), cart.getSubtotal());
+        assertEquals(new BigDecimal("0.60"), cart.getTaxAmount());
+        assertEquals(new BigDecimal("10.65"), cart.getTotal());
+    }
+
+    @Test
+    public void testCouponDiscountMatchesCheckout() {
+        UUID cartId = cartService.createCart().getId();
+        cartService.addLine(cartId, 2001, 1);
+        cartService.addLine(cartId, 2002, 3);
+        Cart cart = cartService.applyCoupon(cartId, "CART15");
+
+        SaleRequest request = new SaleRequest();
+        request.setItems(List.of(new SaleRequest.SaleItemRequest(2001, 1), new SaleRequest.SaleItemRequest(2002, 3)));
+        request.setCouponCode("CART15");
+        Sale priced = saleService.processSale(employee.getId(), request);
+
+        assertEquals(priced.getDiscountAmount(), cart.getDiscountAmount());
+        assertEquals(priced.getFinalTotal(), cart.getTotal());
+    }
+
+    @Test
+    public void testScanBeyondStockIsRejected() {
+        UUID cartId = cartService.createCart().getId();
+        cartService.addLine(cartId, 2002, 4);
+
+        assertThrows(RuntimeException.class, () -> cartService.addLine(cartId, 2002, 2));
+        assertEquals(4, cartService.getCart(cartId).orElseThrow().getLine(2002).getQuantity());
+    }
+
+    @Test
+    public void testCheckoutCommitsPricedCart() {
+        UUID cartId = cartService.createCart().getId();
+        cartService.addLine(cartId, 2001, 2);
+        cartService.addLine(cartId, 2002, 1);
+        Cart cart = cartService.applyCoupon(cartId, "CART15");
+        BigDecimal shownTotal = cart.getTotal();
+
+        Sale sale = cartService.checkout(cartId, employee.getId());
+
+        assertNotNull(sale.getId());
+        assertEquals(shownTotal, sale.getFinalTotal());
+        assertEquals("CART15", sale.getCouponCode());
+        assertEquals(2, sale.getSaleItems().size());
+        assertEquals(18, itemRepository.findByItemId(2001).orElseThrow().getQuantity());
+        assertTrue(cartService.getCart(cartId).isEmpty());
+    }
+
+    @Test
+    public void testCheckoutRejectsCouponExpiredSinceItWasApplied() {
+        UUID cartId = cartService.createCart().getId();
+        cartService.addLine(cartId, 2001, 2);
+        cartService.applyCoupon(cartId, "CART15");
+
+        Coupon coupon = couponRepository.findByCode("CART15").orElseThrow();
+        coupon.setValidTo(LocalDateTime.now().minusMinutes(1));
+        couponService.save(coupon);
+        couponCache.refresh();
+
+        assertThrows(RuntimeException.class, () -> cartService.checkout(cartId, employee.getId()));
+        Cart cart = cartService.getCart(cartId).orElseThrow();
+        assertNull(cart.getCouponCode());
+        assertEquals(new BigDecimal("21.20"), cart.getTotal());
+
+        Sale sale = cartService.checkout(cartId, employee.getId());
+        assertEquals(BigDecimal.ZERO.setScale(2), sale.getDiscountAmount());
+        assertEquals(new BigDecimal("21.20"), sale.getFinalTotal());
+    }
+}
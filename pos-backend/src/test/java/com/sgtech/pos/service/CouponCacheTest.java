@@ -0,0 +1,131 @@
+package com.sgtech.pos.service;
+
+import com.sgtech.pos.dto.SaleRequest;
+import com.sgtech.pos.model.*;
+import com.sgtech.pos.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class CouponCacheTest {
+
+    @Autowired
+    private CouponCache couponCache;
+
+    @SpyBean
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setUp() {
+        couponService.save(new Coupon("SAVE20", new BigDecimal("20.00")));
+
+        Coupon expired = new Coupon("OLD10", new BigDecimal("10.00"));
+        expired.setValidTo(LocalDateTime.now().minusDays(1));
+        couponService.save(expired);
+
+        Coupon upcoming = new Coupon("SOON10", new BigDecimal("10.00"));
+        upcoming.setValidFrom(LocalDateTime.now().plusDays(1));
+        couponService.save(upcoming);
+
+        Coupon inactive = new Coupon("OFF10", new BigDecimal("10.00"));
+        inactive.setActive(false);
+        couponService.save(inactive);
+
+        clearInvocations(couponRepository);
+    }
+
+    @Test
+    public void testKnownCouponIsLoadedOnce() {
+        assertEquals(new BigDecimal("20.00"), couponCache.findValid("SAVE20").orElseThrow().getDiscountPercent());
+        assertTrue(couponCache.findValid("SAVE20").isPresent());
+
+        verify(couponRepository, times(1)).findByCodeAndActiveTrue("SAVE20");
+    }
+
+    @Test
+    public void testUnknownCodesNeverReachTheDatabase() {
+        for (int i = 0; i < 1000; i++) {
+            couponCache.findValid("TYPO" + i);
+        }
+
+        // The filter is sized for a 1% false positive rate
+        verify(couponRepository, atMost(50)).findByCodeAndActiveTrue(anyString());
+        assertTrue(couponCache.findValid("NOPE").isEmpty());
+    }
+
+    @Test
+    public void testValidityWindowIsHonored() {
+        assertTrue(couponCache.findValid("OLD10").isEmpty());
+        assertTrue(couponCache.findValid("SOON10").isEmpty());
+        assertTrue(couponCache.findValid("OFF10").isEmpty());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void testUpdatedCouponIsReloaded() throws Exception {
+        try {
+            assertTrue(couponCache.findValid("SAVE20").isPresent());
+
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                Coupon coupon = couponRepository.findByCode("SAVE20").orElseThrow();
+                coupon.setValidTo(LocalDateTime.now().minusMinutes(1));
+                couponService.save(coupon);
+                // A checkout in between still sees the committed coupon
+                assertTrue(CompletableFuture.supplyAsync(() -> couponCache.findValid("SAVE20")).join().isPresent());
+            });
+
+            assertTrue(couponCache.findValid("SAVE20").isEmpty());
+        } finally {
+            couponRepository.deleteAll(couponRepository.findAll());
+        }
+    }
+
+    @Test
+    public void testExpiredCouponGivesNoDiscount() {
+        Employee employee = employeeRepository.save(
+            new Employee("coupon-cashier", "Coupon", "Cashier", "Cashier", "not-a-real-hash"));
+        itemRepository.save(new Item(3001, "Coupon Item", new BigDecimal("10.00"), 10));
+
+        SaleRequest request = new SaleRequest();
+        request.setItems(List.of(new SaleRequest.SaleItemRequest(3001, 1)));
+        request.setCouponCode("OLD10");
+        Sale sale = saleService.processSale(employee.getId(), request);
+
+        assertEquals(new BigDecimal("0.00"), sale.getDiscountAmount());
+        assertNull(sale.getCouponCode());
+    }
+}
@@ -0,0 +1,63 @@
+package com.sgtech.pos.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A store of one entry, so every completed request evicts the one before.
+ */
+@SpringBootTest(properties = "pos.idempotency.max-entries=1")
+@ActiveProfiles("test")
+public class IdempotencyServiceTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Test
+    public void testRunningRequestSurvivesEvictionByLaterRequests() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        CompletableFuture<ResponseEntity<String>> first = CompletableFuture.supplyAsync(() ->
+            idempotencyService.execute("test", "slow", "body", () -> {
+                runs.incrementAndGet();
+                started.countDown();
+                await(release);
+                return ResponseEntity.ok("first");
+            }));
+        started.await();
+
+        // Both complete while the slow request is still running
+        idempotencyService.execute("test", "other-1", "body", () -> ResponseEntity.ok("other"));
+        idempotencyService.execute("test", "other-2", "body", () -> ResponseEntity.ok("other"));
+
+        CompletableFuture<ResponseEntity<String>> retry = CompletableFuture.supplyAsync(() ->
+            idempotencyService.execute("test", "slow", "body", () -> {
+                runs.incrementAndGet();
+                return ResponseEntity.ok("second");
+            }));
+        release.countDown();
+
+        assertEquals("first", first.get().getBody());
+        assertEquals("first", retry.get().getBody());
+        assertEquals("true", retry.get().getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(1, runs.get());
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
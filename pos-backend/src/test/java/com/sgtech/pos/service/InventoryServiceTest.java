@@ -1,12 +1,12 @@
 package com.sgtech.pos.service;
 
 import com.sgtech.pos.model.Item;
-import com.sgtech.pos.repository.ItemRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -24,9 +24,6 @@ public class InventoryServiceTest {
     @Autowired
     private InventoryService inventoryService;
 
-    @Autowired
-    private ItemRepository itemRepository;
-
     private Item testItem;
 
     @BeforeEach
@@ -36,7 +33,7 @@ public class InventoryServiceTest {
         testItem.setName("Test Inventory Item");
         testItem.setPrice(new BigDecimal("15.00"));
         testItem.setQuantity(50);
-        testItem = itemRepository.save(testItem);
+        testItem = inventoryService.addItem(testItem);
     }
 
     @Test
@@ -53,24 +50,36 @@ public class InventoryServiceTest {
         assertEquals("Test Inventory Item", found.get().getName());
     }
 
+    // Search and the watchlist only see committed items
     @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void testSearchItems() {
-        List<Item> results = inventoryService.searchItems("Inventory");
-        assertFalse(results.isEmpty());
-        assertTrue(results.stream().anyMatch(i -> i.getName().contains("Inventory")));
+        try {
+            List<Item> results = inventoryService.searchItems("Inventory");
+            assertFalse(results.isEmpty());
+            assertTrue(results.stream().anyMatch(i -> i.getName().contains("Inventory")));
+        } finally {
+            inventoryService.deleteItem(testItem.getId());
+        }
     }
 
     @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void testGetLowStockItems() {
         Item lowStockItem = new Item();
         lowStockItem.setItemId(4002);
         lowStockItem.setName("Low Stock Item");
         lowStockItem.setPrice(new BigDecimal("10.00"));
         lowStockItem.setQuantity(5);
-        itemRepository.save(lowStockItem);
-
-        List<Item> lowStock = inventoryService.getLowStockItems(10);
-        assertTrue(lowStock.stream().anyMatch(i -> i.getItemId().equals(4002)));
+        lowStockItem = inventoryService.addItem(lowStockItem);
+
+        try {
+            List<Item> lowStock = inventoryService.getLowStockItems(10);
+            assertTrue(lowStock.stream().anyMatch(i -> i.getItemId().equals(4002)));
+        } finally {
+            inventoryService.deleteItem(lowStockItem.getId());
+            inventoryService.deleteItem(testItem.getId());
+        }
     }
 
     @Test
@@ -0,0 +1,130 @@
+package com.sgtech.pos.service;
+
+import com.sgtech.pos.model.Item;
+import com.sgtech.pos.repository.ItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs without a test transaction so the index sees real commits and
+ * rollbacks.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser
+public class ItemSearchIndexTest {
+
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemChangeFeed itemChangeFeed;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final List<Item> items = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        items.add(inventoryService.addItem(new Item(9801, "Quokka Stapler Deluxe", new BigDecimal("9.00"), 5)));
+        items.add(inventoryService.addItem(new Item(9802, "Quokka Stapler", new BigDecimal("7.00"), 5)));
+        items.add(inventoryService.addItem(new Item(9803, "Mini Quokka Stapler", new BigDecimal("5.00"), 5)));
+        items.add(inventoryService.addItem(new Item(9804, "Quokka Staples (1000)", new BigDecimal("2.00"), 5)));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        for (Item item : items) {
+            inventoryService.deleteItem(item.getId());
+        }
+    }
+
+    @Test
+    public void testResultsAreRankedAndPaged() {
+        Page<Item> first = inventoryService.searchItems("quokka stapler", 0, 2);
+        // Whole-word matches rank above the near miss on "staples"
+        assertEquals(4, first.getTotalElements());
+        assertEquals(List.of(9802, 9801), first.getContent().stream().map(Item::getItemId).toList());
+
+        Page<Item> second = inventoryService.searchItems("quokka stapler", 1, 2);
+        assertEquals(List.of(9803, 9804), second.getContent().stream().map(Item::getItemId).toList());
+
+        // A typo still finds the item through shared trigrams
+        assertEquals(9802, inventoryService.searchItems("quoka stapler", 0, 20).getContent().get(0).getItemId());
+
+        assertEquals(4, inventoryService.searchItems("qu", 0, 20).getTotalElements());
+        assertTrue(inventoryService.searchItems("   ", 0, 20).isEmpty());
+    }
+
+    @Test
+    public void testIndexFollowsCommitsAndRollbacks() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            Item renamed = itemRepository.findById(items.get(3).getId()).orElseThrow();
+            renamed.setName("Wombat Staples");
+            itemChangeFeed.itemsChanged(List.of(itemRepository.save(renamed)));
+            // Only committed names are searchable
+            assertTrue(itemSearchIndex.search("wombat", 0, 20).getItemIds().isEmpty());
+        });
+        assertEquals(List.of(9804), ids(itemSearchIndex.search("wombat", 0, 20)));
+        assertFalse(ids(itemSearchIndex.search("quokka", 0, 20)).contains(9804));
+
+        transaction.executeWithoutResult(status -> {
+            inventoryService.addItem(new Item(9805, "Wombat Eraser", new BigDecimal("1.00"), 5));
+            status.setRollbackOnly();
+        });
+        assertFalse(ids(itemSearchIndex.search("wombat eraser", 0, 20)).contains(9805));
+
+        inventoryService.deleteItem(items.remove(0).getId());
+        assertFalse(ids(itemSearchIndex.search("stapler deluxe", 0, 20)).contains(9801));
+    }
+
+    @Test
+    public void testSearchEndpointReturnsPageWithTotal() throws Exception {
+        mockMvc.perform(get("/api/items/search").param("name", "quokka stapler").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "4"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].itemId").value(9802));
+
+        mockMvc.perform(get("/api/inventory/items/search").param("name", "quokka").param("page", "1").param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "4"))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    private List<Integer> ids(ItemSearchIndex.Hits hits) {
+        return hits.getItemIds();
+    }
+}
@@ -0,0 +1,128 @@
+package com.sgtech.pos.service;
+
+import com.sgtech.pos.dto.DashboardSnapshot;
+import com.sgtech.pos.model.OutboxEvent;
+import com.sgtech.pos.util.RingBuffer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Events are dated far in the future so sales made by other tests in the
+ * shared context never fall inside the window being checked.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser
+public class LiveDashboardServiceTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2100, 1, 1, 12, 0);
+
+    @Autowired
+    private LiveDashboardService liveDashboardService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testSnapshotGroupsSalesByMinute() {
+        UUID repeated = UUID.randomUUID();
+        liveDashboardService.onEvent(sale(repeated, NOON.plusSeconds(5), "12.00", line(7001, "Pen", 2, "12.00")));
+        // A redelivered event must not be counted twice
+        liveDashboardService.onEvent(sale(repeated, NOON.plusSeconds(5), "12.00", line(7001, "Pen", 2, "12.00")));
+        liveDashboardService.onEvent(sale(UUID.randomUUID(), NOON.plusMinutes(2), "50.00",
+            line(7002, "Lamp", 1, "40.00"), line(7001, "Pen", 1, "6.00")));
+        liveDashboardService.onEvent(sale(UUID.randomUUID(), NOON.minusHours(1), "99.00", line(7003, "Old", 1, "99.00")));
+
+        OutboxEvent rental = new OutboxEvent(OutboxService.RENTAL_COMPLETED, "Rental", UUID.randomUUID(), "{}");
+        liveDashboardService.onEvent(rental);
+
+        DashboardSnapshot snapshot = liveDashboardService.snapshot(NOON.plusMinutes(2).plusSeconds(30));
+
+        assertEquals(2, snapshot.getTransactions());
+        assertEquals(0, new BigDecimal("62.00").compareTo(snapshot.getRevenue()));
+        assertEquals(snapshot.getWindowMinutes(), snapshot.getMinutes().size());
+
+        DashboardSnapshot.Minute last = snapshot.getMinutes().get(snapshot.getMinutes().size() - 1);
+        assertEquals(NOON.plusMinutes(2), last.getMinute());
+        assertEquals(1, last.getTransactions());
+        assertEquals(0, snapshot.getMinutes().get(snapshot.getMinutes().size() - 2).getTransactions());
+
+        assertEquals(7002, snapshot.getTopItems().get(0).getItemId());
+        assertEquals(7001, snapshot.getTopItems().get(1).getItemId());
+        assertEquals(3, snapshot.getTopItems().get(1).getQuantity());
+        assertEquals(2, snapshot.getTopItems().size());
+    }
+
+    @Test
+    public void testRingBufferKeepsMostRecentValues() throws Exception {
+        RingBuffer<Integer> buffer = new RingBuffer<>(5);
+        assertEquals(8, buffer.capacity());
+        for (int i = 0; i < 20; i++) {
+            buffer.add(i);
+        }
+        assertEquals(List.of(12, 13, 14, 15, 16, 17, 18, 19), buffer.snapshot());
+
+        RingBuffer<Integer> shared = new RingBuffer<>(4096);
+        ExecutorService writers = Executors.newFixedThreadPool(4);
+        for (int w = 0; w < 4; w++) {
+            int writer = w;
+            writers.execute(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    shared.add(writer * 1000 + i);
+                }
+            });
+        }
+        writers.shutdown();
+        assertTrue(writers.awaitTermination(10, TimeUnit.SECONDS));
+
+        List<Integer> values = shared.snapshot();
+        assertEquals(4000, values.size());
+        assertEquals(4000, values.stream().distinct().count());
+    }
+
+    @Test
+    public void testStreamSendsSnapshotOnConnect() throws Exception {
+        int before = liveDashboardService.subscriberCount();
+
+        mockMvc.perform(get("/api/dashboard/stream"))
+                .andExpect(request().asyncStarted())
+                .andExpect(content().string(containsString("event:" + LiveDashboardService.EVENT_NAME)))
+                .andExpect(content().string(containsString("\"windowMinutes\"")));
+
+        assertEquals(before + 1, liveDashboardService.subscriberCount());
+    }
+
+    private OutboxEvent sale(UUID saleId, LocalDateTime time, String finalTotal, String... lines) {
+        String payload = "{\"saleId\":\"" + saleId + "\",\"finalTotal\":" + finalTotal
+            + ",\"lines\":[" + String.join(",", lines) + "]}";
+        OutboxEvent event = new OutboxEvent(OutboxService.SALE_COMPLETED, "Sale", saleId, payload);
+        event.setCreatedAt(time);
+        return event;
+    }
+
+    private String line(int itemId, String name, int quantity, String amount) {
+        return "{\"itemId\":" + itemId + ",\"name\":\"" + name + "\",\"quantity\":" + quantity
+            + ",\"amount\":" + amount + "}";
+    }
+}
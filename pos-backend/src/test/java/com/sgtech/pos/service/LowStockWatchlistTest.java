@@ -0,0 +1,184 @@
+package com.sgtech.pos.service;
+
+import com.sgtech.pos.dto.SaleRequest;
+import com.sgtech.pos.model.Employee;
+import com.sgtech.pos.model.Item;
+import com.sgtech.pos.repository.EmployeeRepository;
+import com.sgtech.pos.repository.ItemRepository;
+import com.sgtech.pos.repository.OutboxEventRepository;
+import com.sgtech.pos.repository.SaleItemRepository;
+import com.sgtech.pos.repository.SaleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sales write stock with JDBC and threshold events are published after
+ * commit, so this runs without a test transaction.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@RecordApplicationEvents
+@WithMockUser
+public class LowStockWatchlistTest {
+
+    @Autowired
+    private LowStockWatchlist lowStockWatchlist;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private SaleItemRepository saleItemRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StockEngine stockEngine;
+
+    @Autowired
+    private ItemChangeFeed itemChangeFeed;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Employee employee;
+    private Item watched;
+    private Item plenty;
+
+    @BeforeEach
+    public void setUp() {
+        employee = employeeRepository.save(
+            new Employee("watch-cashier", "Watch", "Cashier", "Cashier", "not-a-real-hash"));
+        watched = new Item(9701, "Watched Item", new BigDecimal("3.00"), 8);
+        watched.setReorderThreshold(5);
+        watched = inventoryService.addItem(watched);
+        plenty = new Item(9702, "Plenty Item", new BigDecimal("3.00"), 4);
+        plenty.setReorderThreshold(0);
+        plenty = inventoryService.addItem(plenty);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        outboxEventRepository.deleteAll(outboxEventRepository.findAll());
+        saleItemRepository.deleteAll(saleItemRepository.findAll());
+        saleRepository.deleteAll(saleRepository.findByEmployeeId(employee.getId()));
+        inventoryService.deleteItem(watched.getId());
+        inventoryService.deleteItem(plenty.getId());
+        employeeRepository.deleteById(employee.getId());
+    }
+
+    @Test
+    public void testSaleAcrossThresholdAddsItemAndPublishesEvent() throws Exception {
+        assertFalse(lowStockWatchlist.lowStock(null).contains(9701));
+
+        saleService.processSale(employee.getId(), sale(9701, 2));
+        assertFalse(lowStockWatchlist.lowStock(null).contains(9701));
+        assertEquals(0, crossings().size());
+
+        saleService.processSale(employee.getId(), sale(9701, 4));
+        assertTrue(lowStockWatchlist.lowStock(null).contains(9701));
+        // Its own threshold of 0 keeps 9702 off the list despite lower stock
+        assertFalse(lowStockWatchlist.lowStock(null).contains(9702));
+
+        List<LowStockWatchlist.ThresholdCrossed> crossings = crossings();
+        assertEquals(1, crossings.size());
+        assertTrue(crossings.get(0).isLow());
+        assertEquals(2, crossings.get(0).getQuantity());
+        assertEquals(5, crossings.get(0).getThreshold());
+
+        mockMvc.perform(get("/api/items/low-stock"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.itemId == 9701)].quantity").value(2))
+                .andExpect(jsonPath("$[?(@.itemId == 9702)]").isEmpty());
+
+        inventoryService.updateItemQuantityByItemId(9701, 20);
+        assertFalse(lowStockWatchlist.lowStock(null).contains(9701));
+        assertEquals(2, crossings().size());
+        assertFalse(crossings().get(1).isLow());
+    }
+
+    @Test
+    public void testListIsOrderedByQuantityAndFollowsThresholdChanges() {
+        inventoryService.updateReorderThreshold(plenty.getId(), 10);
+        inventoryService.updateReorderThreshold(watched.getId(), 10);
+
+        List<Integer> low = lowStockWatchlist.lowStock(null);
+        assertTrue(low.indexOf(9702) < low.indexOf(9701));
+        assertFalse(lowStockWatchlist.lowStock(5).contains(9701));
+        assertTrue(lowStockWatchlist.lowStock(5).contains(9702));
+
+        List<Item> items = inventoryService.getLowStockItems(5);
+        assertTrue(items.stream().anyMatch(i -> i.getItemId().equals(9702)));
+    }
+
+    @Test
+    public void testOverlappingCheckoutsLeaveStoredQuantity() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Item stale = itemRepository.findByItemId(9701).orElseThrow();
+            // Another register sells 3 after this checkout loaded the item
+            CompletableFuture.runAsync(() -> saleService.processSale(employee.getId(), sale(9701, 3))).join();
+
+            stockEngine.take(Map.of(stale, 2));
+            itemChangeFeed.itemsChanged(List.of(stale));
+        });
+
+        // 8 - 3 - 2 is stored; the stale entity alone would say 6, above the threshold
+        assertTrue(lowStockWatchlist.lowStock(3).contains(9701));
+        List<LowStockWatchlist.ThresholdCrossed> crossings = crossings();
+        assertEquals(1, crossings.size());
+        assertEquals(5, crossings.get(0).getQuantity());
+    }
+
+    private List<LowStockWatchlist.ThresholdCrossed> crossings() {
+        return events.stream(LowStockWatchlist.ThresholdCrossed.class)
+            .filter(e -> e.getItemId() == 9701)
+            .toList();
+    }
+
+    private SaleRequest sale(int itemId, int quantity) {
+        SaleRequest request = new SaleRequest();
+        request.setItems(List.of(new SaleRequest.SaleItemRequest(itemId, quantity)));
+        return request;
+    }
+}
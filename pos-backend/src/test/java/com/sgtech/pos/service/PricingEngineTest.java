@@ -0,0 +1,73 @@
+package com.sgtech.pos.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the cent-based pricing with the BigDecimal calculation that
+ * checkout used before, over randomized baskets.
+ */
+public class PricingEngineTest {
+
+    private static final BigDecimal TAX_RATE = new BigDecimal("0.06");
+
+    @Test
+    public void testMatchesBigDecimalPricingOnRandomBaskets() {
+        Random random = new Random(20240601L);
+
+        for (int basket = 0; basket < 20000; basket++) {
+            int lines = 1 + random.nextInt(40);
+            BigDecimal subtotal = BigDecimal.ZERO;
+            long subtotalCents = 0;
+
+            for (int i = 0; i < lines; i++) {
+                BigDecimal price = BigDecimal.valueOf(random.nextInt(100000), 2);
+                int quantity = 1 + random.nextInt(25);
+
+                BigDecimal lineTotal = price.multiply(BigDecimal.valueOf(quantity));
+                long lineCents = PricingEngine.lineTotal(PricingEngine.toCents(price), quantity);
+                assertEquals(0, lineTotal.compareTo(PricingEngine.toAmount(lineCents)));
+
+                subtotal = subtotal.add(lineTotal);
+                subtotalCents += lineCents;
+            }
+
+            BigDecimal tax = subtotal.multiply(TAX_RATE).setScale(2, RoundingMode.HALF_UP);
+            long taxCents = PricingEngine.tax(subtotalCents);
+            assertEquals(tax, PricingEngine.toAmount(taxCents), "tax for subtotal " + subtotal);
+
+            BigDecimal percent = BigDecimal.valueOf(random.nextInt(10001), 2);
+            BigDecimal totalWithTax = subtotal.add(tax);
+            BigDecimal discount = totalWithTax.multiply(percent).divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
+            long discountCents = PricingEngine.discount(subtotalCents + taxCents, PricingEngine.toBasisPoints(percent));
+            assertEquals(discount, PricingEngine.toAmount(discountCents), "discount of " + percent + "% on " + totalWithTax);
+
+            assertEquals(totalWithTax.subtract(discount),
+                PricingEngine.toAmount(subtotalCents + taxCents - discountCents));
+        }
+    }
+
+    @Test
+    public void testHalfCentRoundsUp() {
+        // 0.25 * 6% = 0.015 -> 0.02
+        assertEquals(2, PricingEngine.tax(25));
+        // 0.24 * 6% = 0.0144 -> 0.01
+        assertEquals(1, PricingEngine.tax(24));
+        // 12.50% of 0.04 = 0.005 -> 0.01
+        assertEquals(1, PricingEngine.discount(4, 1250));
+    }
+
+    @Test
+    public void testConversions() {
+        assertEquals(1999, PricingEngine.toCents(new BigDecimal("19.99")));
+        assertEquals(1000, PricingEngine.toCents(new BigDecimal("10")));
+        assertEquals(new BigDecimal("19.99"), PricingEngine.toAmount(1999));
+        assertEquals(1050, PricingEngine.toBasisPoints(new BigDecimal("10.50")));
+        assertThrows(ArithmeticException.class, () -> PricingEngine.toCents(new BigDecimal("1.005")));
+    }
+}
@@ -3,6 +3,7 @@ package com.sgtech.pos.service;
 import com.sgtech.pos.dto.RentalRequest;
 import com.sgtech.pos.model.*;
 import com.sgtech.pos.repository.*;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,6 +16,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -41,6 +43,9 @@ public class RentalServiceTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private Employee employee;
     private Item item;
     private String customerPhone = "1234567890";
@@ -117,5 +122,65 @@ public class RentalServiceTest {
         assertFalse(outstanding.isEmpty());
         assertEquals(1, outstanding.size());
     }
-}
 
+    @Test
+    public void testUpdateDaysOverdue() {
+        Rental late = rentalService.processRental(employee.getId(), rentalDue(LocalDate.now().minusDays(3)));
+        rentalService.processRental(employee.getId(), rentalDue(LocalDate.now().plusDays(2)));
+        RentalItem returned = rentalService.processRental(employee.getId(), rentalDue(LocalDate.now().minusDays(5)))
+            .getRentalItems().get(0);
+        returned.setReturned(true);
+        entityManager.flush();
+
+        assertEquals(1, rentalService.updateDaysOverdue());
+        entityManager.clear();
+
+        List<RentalItem> outstanding = rentalService.getOutstandingRentals(customerPhone);
+        assertEquals(2, outstanding.size());
+        // Earliest due first
+        assertEquals(late.getId(), outstanding.get(0).getRental().getId());
+        assertEquals(3, outstanding.get(0).getDaysOverdue());
+        assertEquals(0, outstanding.get(1).getDaysOverdue());
+        assertTrue(rentalService.getOutstandingRentals("0000000000").isEmpty());
+    }
+
+    @Test
+    public void testOverdueRentalsSortByDaysLateAndFee() {
+        UUID longest = rentalService.processRental(employee.getId(), rentalDue(LocalDate.now().minusDays(3))).getId();
+        RentalRequest larger = rentalDue(LocalDate.now().minusDays(1));
+        larger.getItems().get(0).setQuantity(4);
+        UUID priciest = rentalService.processRental(employee.getId(), larger).getId();
+        UUID notDue = rentalService.processRental(employee.getId(), rentalDue(LocalDate.now().plusDays(1))).getId();
+
+        List<UUID> byDays = overdueRentalIds(RentalService.SORT_DAYS_LATE);
+        assertTrue(byDays.indexOf(longest) < byDays.indexOf(priciest));
+        assertFalse(byDays.contains(notDue));
+
+        // 15.00 x 1 x 3 days vs 15.00 x 4 x 1 day at 10% a day
+        List<UUID> byFee = overdueRentalIds(RentalService.SORT_FEE);
+        assertTrue(byFee.indexOf(priciest) < byFee.indexOf(longest));
+        RentalItem line = rentalService.getOverdueRentals(RentalService.SORT_FEE, 0, 200).getContent().stream()
+            .filter(ri -> ri.getRental().getId().equals(longest)).findFirst().orElseThrow();
+        assertEquals(3, rentalService.daysLate(line, LocalDate.now()));
+        assertEquals(new BigDecimal("4.50"), rentalService.estimatedLateFee(line, LocalDate.now()));
+
+        assertThrows(RuntimeException.class, () -> rentalService.getOverdueRentals("name", 0, 10));
+    }
+
+    private List<UUID> overdueRentalIds(String sort) {
+        return rentalService.getOverdueRentals(sort, 0, 200).getContent().stream()
+            .map(ri -> ri.getRental().getId())
+            .toList();
+    }
+
+    private RentalRequest rentalDue(LocalDate dueDate) {
+        RentalRequest request = new RentalRequest();
+        request.setCustomerPhone(customerPhone);
+        request.setDueDate(dueDate);
+        RentalRequest.RentalItemRequest itemReq = new RentalRequest.RentalItemRequest();
+        itemReq.setItemId(2001);
+        itemReq.setQuantity(1);
+        request.setItems(new ArrayList<>(List.of(itemReq)));
+        return request;
+    }
+}
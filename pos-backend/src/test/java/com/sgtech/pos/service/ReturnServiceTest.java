@@ -6,9 +6,12 @@ import com.sgtech.pos.repository.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -18,8 +21,12 @@ import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
+@AutoConfigureMockMvc
 @ActiveProfiles("test")
 @Transactional
 public class ReturnServiceTest {
@@ -48,6 +55,9 @@ public class ReturnServiceTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private MockMvc mockMvc;
+
     private Employee employee;
     private Customer customer;
     private Item item;
@@ -133,6 +143,91 @@ public class ReturnServiceTest {
         assertTrue(updatedRentalItem.getReturned());
     }
 
+    @Test
+    public void testBulkReturnWithPartialLine() {
+        ReturnRequest request = new ReturnRequest();
+        List<ReturnRequest.ReturnItemRequest> items = new ArrayList<>();
+        items.add(new ReturnRequest.ReturnItemRequest(rentalItem.getId(), 1));
+        for (int i = 0; i < 39; i++) {
+            RentalItem line = rentalItemRepository.save(
+                new RentalItem(rental, item, 1, new BigDecimal("25.00")));
+            items.add(new ReturnRequest.ReturnItemRequest(line.getId(), 1));
+        }
+        RentalItem partial = rentalItemRepository.save(new RentalItem(rental, item, 3, new BigDecimal("25.00")));
+        items.add(new ReturnRequest.ReturnItemRequest(partial.getId(), 1));
+        request.setItems(items);
+
+        Return returnEntity = returnService.processReturn(employee.getId(), request);
+
+        assertEquals(41, returnEntity.getReturnItems().size());
+        assertEquals(0, new BigDecimal("1025.00").compareTo(returnEntity.getTotalRefund()));
+        assertEquals(141, itemRepository.findByItemId(3001).orElseThrow().getQuantity());
+
+        // Only the partial line is still out, on its own row
+        List<RentalItem> outstanding = rentalItemRepository.findOutstandingByCustomerPhone("1234567890");
+        assertEquals(1, outstanding.size());
+        assertEquals(partial.getId(), outstanding.get(0).getId());
+        assertEquals(3, outstanding.get(0).getQuantity());
+        assertEquals(2, outstanding.get(0).getOutstandingQuantity());
+
+        // Returning a line twice is still refused
+        ReturnRequest again = new ReturnRequest();
+        again.setItems(new ArrayList<>(List.of(new ReturnRequest.ReturnItemRequest(rentalItem.getId(), 1))));
+        assertThrows(RuntimeException.class, () -> returnService.processReturn(employee.getId(), again));
+    }
+
+    @Test
+    public void testPartialReturnsStayOnOneRow() {
+        RentalItem bundle = rentalItemRepository.save(new RentalItem(rental, item, 5, new BigDecimal("25.00")));
+
+        returnService.processReturn(employee.getId(), returnOf(bundle, 2));
+        RentalItem afterFirst = rentalItemRepository.findById(bundle.getId()).orElseThrow();
+        assertEquals(2, afterFirst.getReturnedQuantity());
+        assertFalse(afterFirst.getReturned());
+        assertNull(afterFirst.getReturnDate());
+
+        // More than is still out is refused
+        assertThrows(RuntimeException.class, () -> returnService.processReturn(employee.getId(), returnOf(bundle, 4)));
+
+        returnService.processReturn(employee.getId(), returnOf(bundle, 3));
+        RentalItem afterSecond = rentalItemRepository.findById(bundle.getId()).orElseThrow();
+        assertEquals(5, afterSecond.getReturnedQuantity());
+        assertTrue(afterSecond.getReturned());
+        assertEquals(LocalDate.now(), afterSecond.getReturnDate());
+
+        assertEquals(2, rentalItemRepository.findAll().stream()
+            .filter(ri -> ri.getRental().getId().equals(rental.getId())).count());
+    }
+
+    @Test
+    @WithMockUser
+    public void testRestOfPartialReturnUsesOutstandingLookup() throws Exception {
+        RentalItem bundle = rentalItemRepository.save(new RentalItem(rental, item, 4, new BigDecimal("25.00")));
+        returnService.processReturn(employee.getId(), returnOf(bundle, 1));
+
+        // What the returns page reads back: the full line and what came back so far
+        mockMvc.perform(get("/api/rentals/outstanding/1234567890"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == '" + bundle.getId() + "')].quantity").value(4))
+                .andExpect(jsonPath("$[?(@.id == '" + bundle.getId() + "')].returnedQuantity").value(1));
+
+        RentalItem line = rentalService.getOutstandingRentals("1234567890").stream()
+            .filter(ri -> ri.getId().equals(bundle.getId())).findFirst().orElseThrow();
+        returnService.processReturn(employee.getId(), returnOf(line, line.getOutstandingQuantity()));
+
+        RentalItem returned = rentalItemRepository.findById(bundle.getId()).orElseThrow();
+        assertTrue(returned.getReturned());
+        assertEquals(4, returned.getReturnedQuantity());
+        assertTrue(rentalService.getOutstandingRentals("1234567890").stream()
+            .noneMatch(ri -> ri.getId().equals(bundle.getId())));
+    }
+
+    private ReturnRequest returnOf(RentalItem line, int quantity) {
+        ReturnRequest request = new ReturnRequest();
+        request.setItems(new ArrayList<>(List.of(new ReturnRequest.ReturnItemRequest(line.getId(), quantity))));
+        return request;
+    }
+
     @Test
     public void testProcessReturnInvalidQuantity() {
         ReturnRequest request = new ReturnRequest();
@@ -136,5 +136,36 @@ public class SaleServiceTest {
             saleService.processSale(employee.getId(), request);
         });
     }
-}
 
+    @Test
+    public void testProcessSaleWithRepeatedItemLines() {
+        SaleRequest request = new SaleRequest();
+        List<SaleRequest.SaleItemRequest> items = new ArrayList<>();
+        items.add(new SaleRequest.SaleItemRequest(1002, 30));
+        items.add(new SaleRequest.SaleItemRequest(1001, 1));
+        items.add(new SaleRequest.SaleItemRequest(1002, 15));
+        request.setItems(items);
+
+        Sale sale = saleService.processSale(employee.getId(), request);
+
+        assertEquals(3, sale.getSaleItems().size());
+        assertEquals(new BigDecimal("910.00"), sale.getTotalAmount()); // 45 * 20 + 10
+
+        // Verify both lines were taken from the same stock
+        assertEquals(5, itemRepository.findByItemId(1002).orElseThrow().getQuantity()); // 50 - 45
+        assertEquals(99, itemRepository.findByItemId(1001).orElseThrow().getQuantity());
+    }
+
+    @Test
+    public void testProcessSaleRepeatedLinesExceedInventory() {
+        SaleRequest request = new SaleRequest();
+        List<SaleRequest.SaleItemRequest> items = new ArrayList<>();
+        items.add(new SaleRequest.SaleItemRequest(1002, 30));
+        items.add(new SaleRequest.SaleItemRequest(1002, 30)); // 60 in total, only 50 in stock
+        request.setItems(items);
+
+        assertThrows(RuntimeException.class, () -> {
+            saleService.processSale(employee.getId(), request);
+        });
+    }
+}
@@ -0,0 +1,146 @@
+package com.sgtech.pos.service;
+
+import com.sgtech.pos.dto.SaleRequest;
+import com.sgtech.pos.model.Employee;
+import com.sgtech.pos.model.Item;
+import com.sgtech.pos.repository.EmployeeRepository;
+import com.sgtech.pos.repository.ItemRepository;
+import com.sgtech.pos.repository.SaleItemRepository;
+import com.sgtech.pos.repository.SaleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+    "pos.inventory.engine=ledger",
+    "pos.inventory.ledger.flush-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class StripedStockLedgerTest {
+
+    @Autowired
+    private StockEngine stockEngine;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private SaleItemRepository saleItemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Employee employee;
+    private Item item;
+
+    @BeforeEach
+    public void setUp() {
+        employee = employeeRepository.save(
+            new Employee("ledger-cashier", "Ledger", "Cashier", "Cashier", "not-a-real-hash"));
+        item = new Item(9801, "Promo Item", new BigDecimal("4.00"), 20);
+        item.setReorderThreshold(18);
+        item = itemRepository.save(item);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ((StripedStockLedger) stockEngine).flush();
+        saleItemRepository.deleteAll(saleItemRepository.findAll());
+        saleRepository.deleteAll(saleRepository.findByEmployeeId(employee.getId()));
+        itemRepository.deleteById(item.getId());
+        employeeRepository.deleteById(employee.getId());
+    }
+
+    @Test
+    public void testSaleReservesInMemoryAndWritesBehind() {
+        SaleRequest request = new SaleRequest();
+        request.setItems(List.of(new SaleRequest.SaleItemRequest(9801, 3)));
+        saleService.processSale(employee.getId(), request);
+
+        Item stored = itemRepository.findByItemId(9801).orElseThrow();
+        assertEquals(17, stockEngine.available(stored));
+        assertEquals(20, stored.getQuantity()); // Not written back yet
+
+        ((StripedStockLedger) stockEngine).flush();
+        assertEquals(17, itemRepository.findByItemId(9801).orElseThrow().getQuantity());
+    }
+
+    @Test
+    @WithMockUser
+    public void testItemEndpointsReportLedgerStock() throws Exception {
+        SaleRequest request = new SaleRequest();
+        request.setItems(List.of(new SaleRequest.SaleItemRequest(9801, 3)));
+        saleService.processSale(employee.getId(), request);
+
+        // items.quantity still says 20 until the ledger writes back
+        mockMvc.perform(get("/api/items/item-id/9801"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(17));
+        mockMvc.perform(get("/api/inventory/items/" + item.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(17));
+        mockMvc.perform(get("/api/items/search").param("name", "Promo Item"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.itemId == 9801)].quantity").value(17));
+        mockMvc.perform(get("/api/inventory/items/low-stock"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.itemId == 9801)].quantity").value(17));
+    }
+
+    @Test
+    public void testRollbackReleasesReservation() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            stockEngine.take(Map.of(item, 5));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(20, stockEngine.available(item));
+        ((StripedStockLedger) stockEngine).flush();
+        assertEquals(20, itemRepository.findByItemId(9801).orElseThrow().getQuantity());
+    }
+
+    @Test
+    public void testInsufficientStockRejected() {
+        assertThrows(RuntimeException.class, () -> stockEngine.take(Map.of(item, 21)));
+        assertEquals(20, stockEngine.available(item));
+    }
+
+    @Test
+    public void testRebuildLoadsDatabaseState() {
+        stockEngine.take(Map.of(item, 4));
+        ((StripedStockLedger) stockEngine).flush();
+        ((StripedStockLedger) stockEngine).rebuild();
+
+        assertEquals(16, stockEngine.available(itemRepository.findByItemId(9801).orElseThrow()));
+    }
+}
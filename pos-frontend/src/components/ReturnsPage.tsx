@@ -20,10 +20,14 @@ interface OutstandingRental {
   itemId: number;
   itemName: string;
   quantity: number;
+  returnedQuantity: number;
   daysOverdue: number;
   returned: boolean;
 }
 
+// Units of a line still out; earlier partial returns are counted on the line
+const outstandingQuantity = (rental: OutstandingRental) => rental.quantity - (rental.returnedQuantity ?? 0);
+
 const ReturnsPage = () => {
   const [customerPhone, setCustomerPhone] = useState('');
   const [outstandingRentals, setOutstandingRentals] = useState<OutstandingRental[]>([]);
@@ -125,12 +129,12 @@ const ReturnsPage = () => {
                       <input
                         type="checkbox"
                         checked={selectedItems.some(item => item.rentalItemId === rental.id)}
-                        onChange={() => toggleItem(rental.id, rental.quantity)}
+                        onChange={() => toggleItem(rental.id, outstandingQuantity(rental))}
                       />
                     </TableCell>
                     <TableCell>{rental.itemId}</TableCell>
                     <TableCell>{rental.itemName}</TableCell>
-                    <TableCell>{rental.quantity}</TableCell>
+                    <TableCell>{outstandingQuantity(rental)}</TableCell>
                     <TableCell>
                       {rental.daysOverdue > 0 ? (
                         <Typography color="error">{rental.daysOverdue} days</Typography>